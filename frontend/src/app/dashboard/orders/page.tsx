@@ -43,6 +43,17 @@ export default function OrdersPage() {
     fetchOrders();
   }, [page, statusFilter]);
 
+  // The list rows are summaries without phone or notes, so the detail panel
+  // always works from the full order.
+  const handleSelectOrder = async (orderId: string) => {
+    try {
+      const response = await orderAPI.getById(orderId);
+      setSelectedOrder(response.data);
+    } catch (error) {
+      console.error('Failed to fetch order', error);
+    }
+  };
+
   const handleStatusUpdate = async (orderId: string, newStatus: string) => {
     setUpdating(true);
     try {
@@ -124,7 +135,7 @@ export default function OrdersPage() {
                   {orders.map((order) => (
                     <tr
                       key={order.id}
-                      onClick={() => setSelectedOrder(order)}
+                      onClick={() => handleSelectOrder(order.id)}
                       className={`cursor-pointer hover:bg-gray-50 ${selectedOrder?.id === order.id ? 'bg-blue-50' : ''}`}
                     >
                       <td className="px-6 py-4 whitespace-nowrap text-sm font-medium">{order.orderNumber}</td>
@@ -173,7 +184,7 @@ export default function OrdersPage() {
 
         <div className="bg-white rounded-lg shadow p-6">
           {selectedOrder ? (
-            <div>
+            <div key={selectedOrder.id}>
               <h2 className="text-lg font-bold mb-4">Order Details</h2>
               <div className="space-y-3">
                 <div>
@@ -26,6 +26,7 @@ export interface OrderItem {
   unitPrice: number;
   totalPrice: number;
   images: string[];
+  thumbnails?: string[];
   customTexts: string[];
   s3Keys: string[];
   createdAt: string;
@@ -0,0 +1,118 @@
+package com.polaroid.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class AsyncConfig implements WebMvcConfigurer {
+
+    @Value("${async.mvc.pool-size:16}")
+    private int mvcPoolSize;
+
+    @Value("${async.mvc.request-timeout:30m}")
+    private Duration mvcRequestTimeout;
+
+    @Value("${storage.download.pool-size:32}")
+    private int storageDownloadPoolSize;
+
+    @Value("${storage.download.queue-capacity:200}")
+    private int storageDownloadQueueCapacity;
+
+    @Value("${storage.upload.pool-size:8}")
+    private int storageUploadPoolSize;
+
+    @Value("${storage.upload.queue-capacity:200}")
+    private int storageUploadQueueCapacity;
+
+    @Value("${storage.thumbnail.pool-size:2}")
+    private int imageProcessingPoolSize;
+
+    @Value("${storage.thumbnail.queue-capacity:500}")
+    private int imageProcessingQueueCapacity;
+    
+    @Value("${payment.outbox.pool-size:4}")
+    private int paymentPoolSize;
+    
+    @Value("${payment.outbox.queue-capacity:100}")
+    private int paymentQueueCapacity;
+    
+    @Value("${security.password-hashing.pool-size:2}")
+    private int passwordHashingPoolSize;
+    
+    @Value("${security.password-hashing.queue-capacity:50}")
+    private int passwordHashingQueueCapacity;
+
+    @Bean
+    public ThreadPoolTaskExecutor passwordHashingExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(passwordHashingPoolSize);
+        executor.setMaxPoolSize(passwordHashingPoolSize);
+        executor.setQueueCapacity(passwordHashingQueueCapacity);
+        executor.setThreadNamePrefix("password-hashing-");
+        return executor;
+    }
+    
+    @Bean
+    public ThreadPoolTaskExecutor paymentExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(paymentPoolSize);
+        executor.setMaxPoolSize(paymentPoolSize);
+        executor.setQueueCapacity(paymentQueueCapacity);
+        executor.setThreadNamePrefix("payment-");
+        return executor;
+    }
+    
+    @Bean
+    public ThreadPoolTaskExecutor mvcAsyncExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(mvcPoolSize);
+        executor.setMaxPoolSize(mvcPoolSize);
+        executor.setThreadNamePrefix("mvc-async-");
+        return executor;
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor storageDownloadExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(storageDownloadPoolSize);
+        executor.setMaxPoolSize(storageDownloadPoolSize);
+        executor.setQueueCapacity(storageDownloadQueueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("storage-download-");
+        return executor;
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor storageUploadExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(storageUploadPoolSize);
+        executor.setMaxPoolSize(storageUploadPoolSize);
+        executor.setQueueCapacity(storageUploadQueueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("storage-upload-");
+        return executor;
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor imageProcessingExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(imageProcessingPoolSize);
+        executor.setMaxPoolSize(imageProcessingPoolSize);
+        executor.setQueueCapacity(imageProcessingQueueCapacity);
+        executor.setThreadNamePrefix("image-processing-");
+        return executor;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(mvcAsyncExecutor());
+        configurer.setDefaultTimeout(mvcRequestTimeout.toMillis());
+    }
+}
@@ -0,0 +1,93 @@
+package com.polaroid.config;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+
+@Configuration
+public class HttpClientConfig {
+
+    @Value("${http-client.storage.max-connections:50}")
+    private int storageMaxConnections;
+
+    @Value("${http-client.storage.connect-timeout:5s}")
+    private Duration storageConnectTimeout;
+
+    @Value("${http-client.storage.read-timeout:60s}")
+    private Duration storageReadTimeout;
+
+    @Value("${http-client.storage.acquire-timeout:10s}")
+    private Duration storageAcquireTimeout;
+
+    @Value("${http-client.payment.max-connections:10}")
+    private int paymentMaxConnections;
+
+    @Value("${http-client.payment.connect-timeout:3s}")
+    private Duration paymentConnectTimeout;
+
+    @Value("${http-client.payment.read-timeout:15s}")
+    private Duration paymentReadTimeout;
+
+    @Value("${http-client.payment.acquire-timeout:2s}")
+    private Duration paymentAcquireTimeout;
+
+    @Bean
+    public PoolingHttpClientConnectionManager storageConnectionManager() {
+        return connectionManager(storageMaxConnections, storageConnectTimeout, storageReadTimeout);
+    }
+
+    @Bean
+    public PoolingHttpClientConnectionManager paymentConnectionManager() {
+        return connectionManager(paymentMaxConnections, paymentConnectTimeout, paymentReadTimeout);
+    }
+
+    @Bean
+    public RestTemplate storageRestTemplate() {
+        return restTemplate(storageConnectionManager(), storageReadTimeout, storageAcquireTimeout);
+    }
+
+    @Bean
+    public RestTemplate paymentRestTemplate() {
+        return restTemplate(paymentConnectionManager(), paymentReadTimeout, paymentAcquireTimeout);
+    }
+
+    private PoolingHttpClientConnectionManager connectionManager(
+            int maxConnections, Duration connectTimeout, Duration readTimeout) {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnections)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeout.toMillis()))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeout.toMillis()))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(10))
+                        .setTimeToLive(TimeValue.ofMinutes(5))
+                        .build())
+                .build();
+    }
+
+    private RestTemplate restTemplate(PoolingHttpClientConnectionManager connectionManager,
+            Duration readTimeout, Duration acquireTimeout) {
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(acquireTimeout.toMillis()))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeout.toMillis()))
+                        .build())
+                .evictIdleConnections(TimeValue.ofSeconds(30))
+                .build();
+
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+    }
+}
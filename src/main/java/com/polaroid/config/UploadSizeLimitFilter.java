@@ -0,0 +1,59 @@
+package com.polaroid.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * spring.servlet.multipart.max-request-size is one servlet-wide limit and is
+ * sized for the batch upload endpoint. Every other multipart request is held
+ * to storage.upload.max-request-size here, from its Content-Length and before
+ * the body is read, so the larger limit only applies to batch uploads.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class UploadSizeLimitFilter extends OncePerRequestFilter {
+    
+    static final String BATCH_UPLOAD_PATH = "/api/files/upload/batch";
+    
+    private final long maxRequestSize;
+    
+    public UploadSizeLimitFilter(@Value("${storage.upload.max-request-size:10MB}") DataSize maxRequestSize) {
+        this.maxRequestSize = maxRequestSize.toBytes();
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        if (contentType == null || !contentType.toLowerCase().startsWith("multipart/")) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return BATCH_UPLOAD_PATH.equals(path);
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        long contentLength = request.getContentLengthLong();
+        if (contentLength < 0) {
+            response.sendError(HttpServletResponse.SC_LENGTH_REQUIRED, "Content-Length is required for uploads");
+            return;
+        }
+        if (contentLength > maxRequestSize) {
+            response.sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE,
+                    "Upload exceeds " + maxRequestSize + " bytes; use the batch upload endpoint for large sets");
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+}
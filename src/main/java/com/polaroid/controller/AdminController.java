@@ -1,30 +1,47 @@
 package com.polaroid.controller;
 
+import com.polaroid.dto.projection.OrderSummary;
+import com.polaroid.dto.request.BulkOrderStatusUpdateRequest;
 import com.polaroid.dto.request.OrderStatusUpdateRequest;
 import com.polaroid.dto.request.PrintSizeRequest;
 import com.polaroid.dto.request.UserRoleUpdateRequest;
+import com.polaroid.dto.response.CursorPage;
 import com.polaroid.dto.response.OrderResponse;
+import com.polaroid.dto.response.OrderStatusBulkReport;
 import com.polaroid.dto.response.PrintSizeResponse;
 import com.polaroid.dto.response.StatsOverviewResponse;
+import com.polaroid.dto.response.TrackingImportReport;
 import com.polaroid.dto.response.UserResponse;
 import com.polaroid.model.enums.OrderStatus;
 import com.polaroid.model.enums.PaymentStatus;
 import com.polaroid.model.enums.Role;
+import com.polaroid.service.OrderExportService;
 import com.polaroid.service.OrderService;
 import com.polaroid.service.PrintSizeService;
 import com.polaroid.service.StatsService;
+import com.polaroid.service.TrackingImportService;
 import com.polaroid.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
@@ -39,6 +56,8 @@ public class AdminController {
     private final UserService userService;
     private final StatsService statsService;
     private final PrintSizeService printSizeService;
+    private final TrackingImportService trackingImportService;
+    private final OrderExportService orderExportService;
     
     @GetMapping("/stats/overview")
     @PreAuthorize("hasAnyRole('ADMIN', 'MARKETING')")
@@ -52,6 +71,12 @@ public class AdminController {
         return ResponseEntity.ok(statsService.getOrdersByStatusMap());
     }
     
+    @GetMapping("/stats/freshness")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MARKETING')")
+    public ResponseEntity<Map<String, Object>> getStatsFreshness() {
+        return ResponseEntity.ok(statsService.getFreshness());
+    }
+    
     @GetMapping("/stats/by-state")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<List<Object[]>> getOrdersByState() {
@@ -66,12 +91,13 @@ public class AdminController {
     
     @GetMapping("/orders")
     @PreAuthorize("hasAnyRole('ADMIN', 'MARKETING', 'PACKER')")
-    public ResponseEntity<Page<OrderResponse>> getOrders(
+    public ResponseEntity<Page<OrderSummary>> getOrders(
             @RequestParam(required = false) OrderStatus status,
             @RequestParam(required = false) PaymentStatus paymentStatus,
             @RequestParam(required = false) String customerState,
             @RequestParam(required = false) LocalDateTime fromDate,
             @RequestParam(required = false) LocalDateTime toDate,
+            @RequestParam(required = false) String search,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(defaultValue = "createdAt") String sortBy,
@@ -83,7 +109,48 @@ public class AdminController {
         Pageable pageable = PageRequest.of(page, size, sort);
         
         return ResponseEntity.ok(orderService.getOrdersWithFilters(
-                status, paymentStatus, customerState, fromDate, toDate, pageable));
+                status, paymentStatus, customerState, fromDate, toDate, search, pageable));
+    }
+    
+    @GetMapping("/orders/scroll")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MARKETING', 'PACKER')")
+    public ResponseEntity<CursorPage<OrderSummary>> scrollOrders(
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) PaymentStatus paymentStatus,
+            @RequestParam(required = false) String customerState,
+            @RequestParam(required = false) LocalDateTime fromDate,
+            @RequestParam(required = false) LocalDateTime toDate,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(orderService.scrollOrdersWithFilters(
+                status, paymentStatus, customerState, fromDate, toDate, search, cursor, size));
+    }
+    
+    @GetMapping("/orders/export")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MARKETING')")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) PaymentStatus paymentStatus,
+            @RequestParam(required = false) String customerState,
+            @RequestParam(required = false) LocalDateTime fromDate,
+            @RequestParam(required = false) LocalDateTime toDate,
+            @RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "CSV") OrderExportService.Format format,
+            HttpServletRequest request) {
+        
+        OrderExportService.Export body = orderExportService.export(
+                status, paymentStatus, customerState, fromDate, toDate, search, format);
+        // Frees the export slot even if the body never runs (client gone, timeout)
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(body, body);
+        
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(format.getContentType()));
+        headers.setContentDispositionFormData("attachment", "orders." + format.getExtension());
+        
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(body);
     }
     
     @GetMapping("/orders/{id}")
@@ -103,6 +170,16 @@ public class AdminController {
                 id, request.getStatus(), request.getMessage(), authentication.getName()));
     }
     
+    @PatchMapping("/orders/status")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MARKETING', 'PACKER')")
+    public ResponseEntity<OrderStatusBulkReport> updateOrderStatuses(
+            @Valid @RequestBody BulkOrderStatusUpdateRequest request,
+            Authentication authentication) {
+        
+        return ResponseEntity.ok(orderService.updateOrderStatuses(
+                request.getOrderIds(), request.getStatus(), request.getMessage(), authentication.getName()));
+    }
+    
     @PatchMapping("/orders/{id}/tracking")
     @PreAuthorize("hasAnyRole('ADMIN', 'MARKETING', 'PACKER')")
     public ResponseEntity<OrderResponse> updateTrackingNumber(
@@ -111,6 +188,45 @@ public class AdminController {
         return ResponseEntity.ok(orderService.updateTrackingNumber(id, trackingNumber));
     }
     
+    /**
+     * Imports a courier CSV and answers with the rejected rows as a CSV
+     * download; the totals are returned in X-Import-* headers.
+     */
+    @PostMapping(value = "/orders/tracking/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'MARKETING', 'PACKER')")
+    public ResponseEntity<StreamingResponseBody> importTrackingNumbers(
+            @RequestParam("file") MultipartFile file,
+            Authentication authentication) throws IOException {
+        
+        TrackingImportService.TrackingImport result;
+        try (InputStream input = file.getInputStream()) {
+            result = trackingImportService.importCsv(input, authentication.getName());
+        }
+        TrackingImportReport report = result.report();
+        Path errorReport = result.errorReport();
+        
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("text/csv"));
+        headers.setContentDispositionFormData("attachment", "tracking-import-errors.csv");
+        headers.set("X-Import-Total", String.valueOf(report.getTotal()));
+        headers.set("X-Import-Updated", String.valueOf(report.getUpdated()));
+        headers.set("X-Import-Posted", String.valueOf(report.getPosted()));
+        headers.set("X-Import-Failed", String.valueOf(report.getFailed()));
+        headers.set("X-Import-Elapsed-Ms", String.valueOf(report.getElapsedMs()));
+        
+        StreamingResponseBody body = outputStream -> {
+            try {
+                Files.copy(errorReport, outputStream);
+            } finally {
+                Files.deleteIfExists(errorReport);
+            }
+        };
+        
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(body);
+    }
+    
     @PostMapping("/orders/{id}/notes")
     @PreAuthorize("hasAnyRole('ADMIN', 'MARKETING', 'PACKER')")
     public ResponseEntity<OrderResponse> addNotes(
@@ -6,6 +6,7 @@ import com.polaroid.dto.response.AuthResponse;
 import com.polaroid.dto.response.UserResponse;
 import com.polaroid.model.enums.Role;
 import com.polaroid.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -20,21 +21,28 @@ public class AuthController {
     private final AuthService authService;
     
     @PostMapping("/register")
-    public ResponseEntity<AuthResponse> register(@Valid @RequestBody RegisterRequest request) {
-        return ResponseEntity.ok(authService.register(request));
+    public ResponseEntity<AuthResponse> register(
+            @Valid @RequestBody RegisterRequest request,
+            HttpServletRequest httpRequest) {
+        return ResponseEntity.ok(authService.register(request, httpRequest.getRemoteAddr()));
     }
     
     @PostMapping("/setup-admin")
-    public ResponseEntity<AuthResponse> setupAdmin(@RequestParam String secret, @RequestBody RegisterRequest request) {
+    public ResponseEntity<AuthResponse> setupAdmin(
+            @RequestParam String secret,
+            @RequestBody RegisterRequest request,
+            HttpServletRequest httpRequest) {
         if (!"admin-secret-2024".equals(secret)) {
             return ResponseEntity.status(401).build();
         }
-        return ResponseEntity.ok(authService.registerAsAdmin(request));
+        return ResponseEntity.ok(authService.registerAsAdmin(request, httpRequest.getRemoteAddr()));
     }
     
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request) {
-        return ResponseEntity.ok(authService.login(request));
+    public ResponseEntity<AuthResponse> login(
+            @Valid @RequestBody LoginRequest request,
+            HttpServletRequest httpRequest) {
+        return ResponseEntity.ok(authService.login(request, httpRequest.getRemoteAddr()));
     }
     
     @PostMapping("/refresh")
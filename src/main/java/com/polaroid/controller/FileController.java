@@ -8,6 +8,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
 import java.util.List;
@@ -28,6 +29,14 @@ public class FileController {
         return ResponseEntity.ok(fileService.uploadFile(file, orderId));
     }
     
+    @PostMapping("/upload/batch")
+    public ResponseEntity<List<Map<String, String>>> uploadFiles(
+            @RequestParam("files") List<MultipartFile> files,
+            @RequestParam("orderId") String orderId) {
+        
+        return ResponseEntity.ok(fileService.uploadFiles(files, orderId));
+    }
+    
     @DeleteMapping("/{key}")
     public ResponseEntity<Void> deleteFile(@PathVariable String key) throws IOException {
         fileService.deleteFile(key);
@@ -41,7 +50,7 @@ public class FileController {
     
     @GetMapping("/order/{orderId}/download")
     @PreAuthorize("hasAnyRole('ADMIN', 'MARKETING', 'PACKER')")
-    public ResponseEntity<byte[]> downloadOrderFiles(@PathVariable String orderId) throws IOException {
+    public ResponseEntity<StreamingResponseBody> downloadOrderFiles(@PathVariable String orderId) {
         List<Map<String, String>> files = fileService.listFiles(orderId);
         
         if (files.isEmpty()) {
@@ -52,14 +61,14 @@ public class FileController {
                 .map(f -> f.get("key"))
                 .toList();
         
-        byte[] zipData = fileService.downloadFiles(keys);
-        
         HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+        headers.setContentType(MediaType.parseMediaType("application/zip"));
         headers.setContentDispositionFormData("attachment", orderId + "_images.zip");
         
+        StreamingResponseBody body = outputStream -> fileService.writeZip(keys, outputStream);
+        
         return ResponseEntity.ok()
                 .headers(headers)
-                .body(zipData);
+                .body(body);
     }
 }
@@ -1,6 +1,8 @@
 package com.polaroid.controller;
 
+import com.polaroid.dto.projection.OrderSummary;
 import com.polaroid.dto.request.OrderRequest;
+import com.polaroid.dto.response.CursorPage;
 import com.polaroid.dto.response.OrderResponse;
 import com.polaroid.service.OrderService;
 import com.polaroid.service.PaymentService;
@@ -53,8 +55,25 @@ public class OrderController {
         return ResponseEntity.ok(orderService.getUserOrders(authentication.getName(), pageable));
     }
     
+    @GetMapping("/my/scroll")
+    public ResponseEntity<CursorPage<OrderSummary>> scrollMyOrders(
+            Authentication authentication,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(orderService.scrollUserOrders(authentication.getName(), cursor, size));
+    }
+    
     @PostMapping("/{orderNumber}/pay")
     public ResponseEntity<Map<String, String>> initiatePayment(@PathVariable String orderNumber) {
-        return ResponseEntity.ok(paymentService.createPayment(orderNumber));
+        Map<String, String> result = paymentService.createPayment(orderNumber);
+        if (PaymentService.STATUS_READY.equals(result.get("status"))) {
+            return ResponseEntity.ok(result);
+        }
+        return ResponseEntity.accepted().body(result);
+    }
+    
+    @GetMapping("/{orderNumber}/payment")
+    public ResponseEntity<Map<String, String>> getPaymentStatus(@PathVariable String orderNumber) {
+        return ResponseEntity.ok(paymentService.getPaymentStatus(orderNumber));
     }
 }
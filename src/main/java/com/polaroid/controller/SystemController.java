@@ -37,6 +37,18 @@ public class SystemController {
         return ResponseEntity.ok(systemService.getPaymentCosts(from, to));
     }
     
+    @GetMapping("/http-pools")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getHttpPoolInfo() {
+        return ResponseEntity.ok(systemService.getHttpPoolInfo());
+    }
+    
+    @GetMapping("/password-hashing")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getPasswordHashingInfo() {
+        return ResponseEntity.ok(systemService.getPasswordHashingInfo());
+    }
+    
     @GetMapping("/server")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Map<String, Object>> getServerInfo() {
@@ -1,5 +1,7 @@
 package com.polaroid.controller;
 
+import com.polaroid.dto.projection.OrderSummary;
+import com.polaroid.dto.response.CursorPage;
 import com.polaroid.dto.response.OrderResponse;
 import com.polaroid.dto.response.StatsOverviewResponse;
 import com.polaroid.dto.response.UserResponse;
@@ -65,24 +67,19 @@ public class WebController {
             @RequestParam(required = false) OrderStatus status,
             @RequestParam(required = false) PaymentStatus paymentStatus,
             @RequestParam(required = false) String search,
-            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "20") int size,
             Authentication authentication) {
         
         UserResponse user = authService.getCurrentUser(authentication.getName());
-        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
         
-        Page<OrderResponse> ordersPage;
-        if (search != null && !search.isEmpty()) {
-            ordersPage = orderService.getOrdersWithFilters(status, paymentStatus, null, null, null, pageable);
-        } else {
-            ordersPage = orderService.getOrdersWithFilters(status, paymentStatus, null, null, null, pageable);
-        }
+        CursorPage<OrderSummary> ordersPage = orderService.scrollOrdersWithFilters(
+                status, paymentStatus, null, null, null, search, cursor, size);
         
         model.addAttribute("user", user);
         model.addAttribute("orders", ordersPage.getContent());
-        model.addAttribute("currentPage", page);
-        model.addAttribute("totalPages", ordersPage.getTotalPages());
+        model.addAttribute("cursor", cursor);
+        model.addAttribute("nextCursor", ordersPage.getNextCursor());
         model.addAttribute("status", status);
         model.addAttribute("paymentStatus", paymentStatus);
         model.addAttribute("search", search);
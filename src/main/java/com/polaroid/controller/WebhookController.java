@@ -1,7 +1,7 @@
 package com.polaroid.controller;
 
 import com.polaroid.model.enums.PaymentStatus;
-import com.polaroid.service.OrderService;
+import com.polaroid.service.WebhookInboxStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -15,35 +15,46 @@ import java.util.Map;
 @Slf4j
 public class WebhookController {
     
-    private final OrderService orderService;
+    private static final String PROVIDER_TOYYIBPAY = "toyyibpay";
+    
+    private final WebhookInboxStore webhookInboxStore;
     
     @PostMapping("/toyyibpay")
     public ResponseEntity<Map<String, String>> handleToyyibpayCallback(
             @RequestParam(required = false) String refno,
             @RequestParam(required = false) String status,
+            @RequestParam(required = false) String billcode,
             @RequestParam(required = false) String amount) {
         
-        log.info("ToyyibPay callback received - refno: {}, status: {}, amount: {}", refno, status, amount);
+        log.info("ToyyibPay callback received - refno: {}, status: {}, billcode: {}, amount: {}",
+                refno, status, billcode, amount);
         
         if (refno == null || refno.isEmpty()) {
             return ResponseEntity.badRequest().body(Map.of("status", "error", "message", "Missing refno"));
         }
         
-        try {
-            if ("1".equals(status) || "success".equalsIgnoreCase(status)) {
-                orderService.updatePaymentStatus(refno, PaymentStatus.PAID);
-                return ResponseEntity.ok(Map.of("status", "success", "message", "Payment processed"));
-            } else if ("3".equals(status) || "pending".equalsIgnoreCase(status)) {
-                orderService.updatePaymentStatus(refno, PaymentStatus.PENDING);
-                return ResponseEntity.ok(Map.of("status", "pending", "message", "Payment pending"));
-            } else if ("2".equals(status) || "failed".equalsIgnoreCase(status)) {
-                orderService.updatePaymentStatus(refno, PaymentStatus.FAILED);
-                return ResponseEntity.ok(Map.of("status", "failed", "message", "Payment failed"));
-            }
-            
+        PaymentStatus paymentStatus;
+        String responseStatus;
+        if ("1".equals(status) || "success".equalsIgnoreCase(status)) {
+            paymentStatus = PaymentStatus.PAID;
+            responseStatus = "success";
+        } else if ("3".equals(status) || "pending".equalsIgnoreCase(status)) {
+            paymentStatus = PaymentStatus.PENDING;
+            responseStatus = "pending";
+        } else if ("2".equals(status) || "failed".equalsIgnoreCase(status)) {
+            paymentStatus = PaymentStatus.FAILED;
+            responseStatus = "failed";
+        } else {
             return ResponseEntity.ok(Map.of("status", "unknown", "message", "Unknown status"));
+        }
+        
+        try {
+            boolean recorded = webhookInboxStore.record(PROVIDER_TOYYIBPAY, refno, paymentStatus, billcode, amount);
+            return ResponseEntity.ok(Map.of(
+                    "status", responseStatus,
+                    "message", recorded ? "Callback received" : "Duplicate callback"));
         } catch (Exception e) {
-            log.error("Error processing ToyyibPay callback: {}", e.getMessage(), e);
+            log.error("Error recording ToyyibPay callback: {}", e.getMessage(), e);
             return ResponseEntity.internalServerError().body(Map.of("status", "error", "message", e.getMessage()));
         }
     }
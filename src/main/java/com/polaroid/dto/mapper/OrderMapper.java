@@ -1,28 +1,59 @@
 package com.polaroid.dto.mapper;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.polaroid.dto.response.OrderItemResponse;
 import com.polaroid.dto.response.OrderResponse;
 import com.polaroid.dto.response.StatusHistoryResponse;
 import com.polaroid.model.Order;
 import com.polaroid.model.OrderItem;
 import com.polaroid.model.OrderStatusHistory;
+import com.polaroid.service.ThumbnailService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Component
+@RequiredArgsConstructor
+@Slf4j
 public class OrderMapper implements EntityMapper<Order, OrderResponse> {
     
+    private static final TypeReference<List<String>> STRING_LIST = new TypeReference<>() {
+    };
+    
+    private final ObjectMapper objectMapper;
+    private final ThumbnailService thumbnailService;
+    
     @Override
     public OrderResponse toDto(Order entity) {
         if (entity == null) return null;
-        
-        List<OrderItemResponse> itemResponses = entity.getItems() != null 
-                ? entity.getItems().stream()
-                        .map(this::toItemDto)
-                        .collect(Collectors.toList())
-                : List.of();
+        return toDto(entity, findReadyThumbnails(List.of(entity)));
+    }
+    
+    /**
+     * Maps a page of orders with a single thumbnail lookup for all of them
+     * instead of one per order.
+     */
+    public List<OrderResponse> toDtos(List<Order> entities) {
+        Set<String> readyThumbnails = findReadyThumbnails(entities);
+        return entities.stream()
+                .map(entity -> toDto(entity, readyThumbnails))
+                .collect(Collectors.toList());
+    }
+    
+    private OrderResponse toDto(Order entity, Set<String> readyThumbnails) {
+        List<OrderItemResponse> itemResponses = List.of();
+        if (entity.getItems() != null) {
+            itemResponses = entity.getItems().stream()
+                    .map(item -> toItemDto(item, parseImages(item.getImages()), readyThumbnails))
+                    .collect(Collectors.toList());
+        }
         
         List<StatusHistoryResponse> historyResponses = entity.getStatusHistory() != null
                 ? entity.getStatusHistory().stream()
@@ -78,7 +109,17 @@ public class OrderMapper implements EntityMapper<Order, OrderResponse> {
                 .build();
     }
     
-    private OrderItemResponse toItemDto(OrderItem item) {
+    private Set<String> findReadyThumbnails(List<Order> entities) {
+        return thumbnailService.findReady(entities.stream()
+                .filter(entity -> entity.getItems() != null)
+                .flatMap(entity -> entity.getItems().stream())
+                .flatMap(item -> parseImages(item.getImages()).stream())
+                .map(OrderMapper::originalKey)
+                .filter(Objects::nonNull)
+                .toList());
+    }
+    
+    private OrderItemResponse toItemDto(OrderItem item, List<String> images, Set<String> readyThumbnails) {
         return OrderItemResponse.builder()
                 .id(item.getId().toString())
                 .sizeId(item.getSizeId())
@@ -87,10 +128,52 @@ public class OrderMapper implements EntityMapper<Order, OrderResponse> {
                 .unitPrice(item.getUnitPrice())
                 .totalPrice(item.getTotalPrice())
                 .images(item.getImages())
+                .thumbnails(item.getImages() != null ? toThumbnails(images, readyThumbnails) : null)
                 .customTexts(item.getCustomTexts())
                 .build();
     }
     
+    /**
+     * Points each image at its preview when one has been generated and keeps the
+     * original URL otherwise, so the list never contains a missing object.
+     */
+    private String toThumbnails(List<String> images, Set<String> readyThumbnails) {
+        List<String> thumbnails = images.stream()
+                .map(url -> {
+                    String key = originalKey(url);
+                    return key != null && readyThumbnails.contains(key)
+                            ? url.substring(0, url.length() - key.length()) + ThumbnailService.toThumbnailKey(key)
+                            : url;
+                })
+                .toList();
+        try {
+            return objectMapper.writeValueAsString(thumbnails);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize thumbnail URLs", e);
+        }
+    }
+    
+    private List<String> parseImages(String images) {
+        if (images == null || images.isBlank()) {
+            return List.of();
+        }
+        try {
+            return objectMapper.readValue(images, STRING_LIST);
+        } catch (JsonProcessingException e) {
+            log.warn("Unreadable images column: {}", e.getOriginalMessage());
+            return List.of();
+        }
+    }
+    
+    /**
+     * Storage key of an uploaded original ("original/{orderId}/{file}") taken
+     * from its public URL, or null for URLs that do not point at one.
+     */
+    private static String originalKey(String url) {
+        int index = url.lastIndexOf("/" + ThumbnailService.ORIGINAL_PREFIX);
+        return index < 0 ? null : url.substring(index + 1);
+    }
+    
     private StatusHistoryResponse toHistoryDto(OrderStatusHistory history) {
         return StatusHistoryResponse.builder()
                 .id(history.getId().toString())
@@ -0,0 +1,14 @@
+package com.polaroid.dto.projection;
+
+import java.math.BigDecimal;
+
+public interface OrderOverviewCounts {
+    Long getTotalOrders();
+    Long getPendingOrders();
+    Long getProcessingOrders();
+    Long getDeliveredOrders();
+    Long getCancelledOrders();
+    Long getPaidOrders();
+    Long getPendingPayments();
+    BigDecimal getTotalRevenue();
+}
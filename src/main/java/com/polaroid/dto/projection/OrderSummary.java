@@ -0,0 +1,22 @@
+package com.polaroid.dto.projection;
+
+import com.polaroid.model.enums.OrderStatus;
+import com.polaroid.model.enums.PaymentStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public interface OrderSummary {
+    UUID getId();
+    String getOrderNumber();
+    String getCustomerName();
+    String getCustomerEmail();
+    String getCustomerState();
+    OrderStatus getStatus();
+    PaymentStatus getPaymentStatus();
+    BigDecimal getTotal();
+    String getTrackingNumber();
+    LocalDateTime getPaidAt();
+    LocalDateTime getCreatedAt();
+}
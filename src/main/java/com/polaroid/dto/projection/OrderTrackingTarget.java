@@ -0,0 +1,18 @@
+package com.polaroid.dto.projection;
+
+import com.polaroid.model.enums.OrderStatus;
+import com.polaroid.model.enums.PaymentStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public interface OrderTrackingTarget {
+    UUID getId();
+    String getOrderNumber();
+    String getCustomerState();
+    OrderStatus getStatus();
+    PaymentStatus getPaymentStatus();
+    BigDecimal getTotal();
+    LocalDateTime getCreatedAt();
+}
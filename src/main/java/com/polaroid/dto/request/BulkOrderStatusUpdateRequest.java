@@ -0,0 +1,22 @@
+package com.polaroid.dto.request;
+
+import com.polaroid.model.enums.OrderStatus;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+public class BulkOrderStatusUpdateRequest {
+    @NotEmpty(message = "Order IDs are required")
+    @Size(max = 500, message = "At most 500 orders can be updated at once")
+    private List<UUID> orderIds;
+    
+    @NotNull(message = "Status is required")
+    private OrderStatus status;
+    
+    private String message;
+}
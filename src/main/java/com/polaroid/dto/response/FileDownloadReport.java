@@ -0,0 +1,20 @@
+package com.polaroid.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FileDownloadReport {
+    private int total;
+    private int succeeded;
+    private int failed;
+    private long elapsedMs;
+    private List<FileDownloadResult> results;
+}
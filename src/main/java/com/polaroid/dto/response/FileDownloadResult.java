@@ -0,0 +1,17 @@
+package com.polaroid.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FileDownloadResult {
+    private String key;
+    private boolean success;
+    private int attempts;
+    private String error;
+}
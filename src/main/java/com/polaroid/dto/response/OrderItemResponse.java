@@ -19,5 +19,6 @@ public class OrderItemResponse {
     private BigDecimal unitPrice;
     private BigDecimal totalPrice;
     private String images;
+    private String thumbnails;
     private String customTexts;
 }
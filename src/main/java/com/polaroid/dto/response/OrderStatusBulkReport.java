@@ -0,0 +1,23 @@
+package com.polaroid.dto.response;
+
+import com.polaroid.model.enums.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusBulkReport {
+    private OrderStatus status;
+    private int total;
+    private int updated;
+    private int unchanged;
+    private int failed;
+    private long elapsedMs;
+    private List<OrderStatusBulkResult> results;
+}
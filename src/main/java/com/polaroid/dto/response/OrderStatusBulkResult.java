@@ -0,0 +1,21 @@
+package com.polaroid.dto.response;
+
+import com.polaroid.model.enums.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusBulkResult {
+    private UUID orderId;
+    private String orderNumber;
+    private boolean success;
+    private OrderStatus previousStatus;
+    private String error;
+}
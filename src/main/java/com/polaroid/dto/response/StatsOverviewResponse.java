@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 @Data
 @Builder
@@ -20,4 +21,5 @@ public class StatsOverviewResponse {
     private BigDecimal totalRevenue;
     private long paidOrders;
     private long pendingPayments;
+    private LocalDateTime refreshedAt;
 }
@@ -0,0 +1,18 @@
+package com.polaroid.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrackingImportReport {
+    private int total;
+    private int updated;
+    private int posted;
+    private int failed;
+    private long elapsedMs;
+}
@@ -0,0 +1,22 @@
+package com.polaroid.event;
+
+import com.polaroid.model.enums.OrderStatus;
+import com.polaroid.model.enums.PaymentStatus;
+import lombok.Builder;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Value
+@Builder
+public class OrderChangedEvent {
+    boolean created;
+    String customerState;
+    BigDecimal total;
+    LocalDateTime createdAt;
+    OrderStatus oldStatus;
+    OrderStatus newStatus;
+    PaymentStatus oldPaymentStatus;
+    PaymentStatus newPaymentStatus;
+}
@@ -0,0 +1,10 @@
+package com.polaroid.event;
+
+import lombok.Value;
+
+import java.util.UUID;
+
+@Value
+public class PaymentRequestedEvent {
+    UUID requestId;
+}
@@ -0,0 +1,8 @@
+package com.polaroid.event;
+
+import lombok.Value;
+
+@Value
+public class UserChangedEvent {
+    String email;
+}
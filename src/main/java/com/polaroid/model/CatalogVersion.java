@@ -0,0 +1,19 @@
+package com.polaroid.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Entity
+@Table(name = "catalog_versions")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CatalogVersion {
+    
+    @Id
+    private String name;
+    
+    @Column(nullable = false)
+    private Long version;
+}
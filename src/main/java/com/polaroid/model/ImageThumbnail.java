@@ -0,0 +1,38 @@
+package com.polaroid.model;
+
+import com.polaroid.model.enums.ThumbnailState;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "image_thumbnails")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImageThumbnail {
+    
+    @Id
+    @Column(name = "original_key", length = 500)
+    private String originalKey;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    @Builder.Default
+    private ThumbnailState state = ThumbnailState.PENDING;
+    
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+    
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
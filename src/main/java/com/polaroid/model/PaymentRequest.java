@@ -0,0 +1,47 @@
+package com.polaroid.model;
+
+import com.polaroid.model.base.Auditable;
+import com.polaroid.model.enums.PaymentRequestStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "payment_requests")
+@Data
+@EqualsAndHashCode(callSuper = false)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PaymentRequest extends Auditable {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+    
+    @Column(name = "order_id", nullable = false)
+    private UUID orderId;
+    
+    @Column(name = "order_number", nullable = false)
+    private String orderNumber;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    @Builder.Default
+    private PaymentRequestStatus status = PaymentRequestStatus.PENDING;
+    
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+    
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+    
+    @Column(name = "bill_code")
+    private String billCode;
+    
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+}
@@ -47,4 +47,8 @@ public class User extends Auditable {
     @Column(name = "is_active")
     @Builder.Default
     private Boolean isActive = true;
+    
+    @Column(name = "token_version", nullable = false)
+    @Builder.Default
+    private Long tokenVersion = 0L;
 }
@@ -0,0 +1,64 @@
+package com.polaroid.model;
+
+import com.polaroid.model.enums.PaymentStatus;
+import com.polaroid.model.enums.WebhookInboxState;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "webhook_inbox",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"provider", "dedup_key"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WebhookInboxEntry {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false)
+    private String provider;
+    
+    @Column(name = "dedup_key", nullable = false)
+    private String dedupKey;
+    
+    @Column(nullable = false)
+    private String refno;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private PaymentStatus status;
+    
+    @Column(name = "bill_code")
+    private String billCode;
+    
+    private String amount;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    @Builder.Default
+    private WebhookInboxState state = WebhookInboxState.PENDING;
+    
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+    
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+    
+    @Column(name = "received_at", nullable = false)
+    private LocalDateTime receivedAt;
+    
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+    
+    @Column(name = "claimed_at")
+    private LocalDateTime claimedAt;
+    
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+}
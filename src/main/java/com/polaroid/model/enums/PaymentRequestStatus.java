@@ -0,0 +1,8 @@
+package com.polaroid.model.enums;
+
+public enum PaymentRequestStatus {
+    PENDING,
+    PROCESSING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,7 @@
+package com.polaroid.model.enums;
+
+public enum ThumbnailState {
+    PENDING,
+    READY,
+    FAILED
+}
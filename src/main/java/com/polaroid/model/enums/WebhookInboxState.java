@@ -0,0 +1,8 @@
+package com.polaroid.model.enums;
+
+public enum WebhookInboxState {
+    PENDING,
+    PROCESSING,
+    PROCESSED,
+    FAILED
+}
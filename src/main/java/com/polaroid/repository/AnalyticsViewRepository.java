@@ -0,0 +1,96 @@
+package com.polaroid.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+@RequiredArgsConstructor
+public class AnalyticsViewRepository {
+    
+    public static final List<String> VIEWS = List.of("mv_daily_sales", "mv_orders_by_status", "mv_top_sizes");
+    
+    private static final long REFRESH_LOCK_KEY = 7_031_001L;
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    public boolean viewsExist() {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_matviews WHERE matviewname IN ('mv_daily_sales', 'mv_orders_by_status', 'mv_top_sizes')",
+                Integer.class);
+        return count != null && count == VIEWS.size();
+    }
+    
+    @Transactional
+    public boolean refreshViews() {
+        Boolean locked = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, REFRESH_LOCK_KEY);
+        if (!Boolean.TRUE.equals(locked)) {
+            return false;
+        }
+        
+        for (String view : VIEWS) {
+            jdbcTemplate.execute("REFRESH MATERIALIZED VIEW CONCURRENTLY " + view);
+            jdbcTemplate.update("INSERT INTO analytics_view_refresh (view_name, refreshed_at) VALUES (?, NOW()) " +
+                    "ON CONFLICT (view_name) DO UPDATE SET refreshed_at = EXCLUDED.refreshed_at", view);
+        }
+        return true;
+    }
+    
+    public Map<String, LocalDateTime> findRefreshTimes() {
+        Map<String, LocalDateTime> refreshTimes = new HashMap<>();
+        jdbcTemplate.query("SELECT view_name, refreshed_at FROM analytics_view_refresh",
+                rs -> {
+                    Timestamp refreshedAt = rs.getTimestamp("refreshed_at");
+                    refreshTimes.put(rs.getString("view_name"), refreshedAt != null ? refreshedAt.toLocalDateTime() : null);
+                });
+        return refreshTimes;
+    }
+    
+    public List<Object[]> countByStatusGrouped() {
+        return jdbcTemplate.query(
+                "SELECT status, SUM(order_count) FROM mv_orders_by_status GROUP BY status",
+                (rs, rowNum) -> new Object[]{rs.getString(1), rs.getLong(2)});
+    }
+    
+    public List<Object[]> countByPaymentStatusGrouped() {
+        return jdbcTemplate.query(
+                "SELECT payment_status, SUM(order_count) FROM mv_orders_by_status GROUP BY payment_status",
+                (rs, rowNum) -> new Object[]{rs.getString(1), rs.getLong(2)});
+    }
+    
+    public List<Object[]> countByState() {
+        return jdbcTemplate.query(
+                "SELECT customer_state, SUM(order_count) FROM mv_orders_by_status GROUP BY customer_state",
+                (rs, rowNum) -> new Object[]{rs.getString(1), rs.getLong(2)});
+    }
+    
+    public List<Object[]> findTopSellingSizes() {
+        return jdbcTemplate.query(
+                "SELECT size_id, total_prints FROM mv_top_sizes ORDER BY total_prints DESC",
+                (rs, rowNum) -> new Object[]{rs.getString(1), rs.getLong(2)});
+    }
+    
+    public List<Object[]> getDailySales(LocalDate from, LocalDate to) {
+        return jdbcTemplate.query(
+                "SELECT sale_date, order_count, total_revenue FROM mv_daily_sales " +
+                "WHERE sale_date BETWEEN ? AND ? ORDER BY sale_date",
+                (rs, rowNum) -> new Object[]{rs.getDate(1).toLocalDate(), rs.getLong(2), rs.getBigDecimal(3)},
+                Date.valueOf(from), Date.valueOf(to));
+    }
+    
+    public BigDecimal sumPaidRevenueSince(LocalDate from) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(paid_revenue), 0) FROM mv_daily_sales WHERE sale_date >= ?",
+                BigDecimal.class, Date.valueOf(from));
+    }
+}
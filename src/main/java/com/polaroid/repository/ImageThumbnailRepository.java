@@ -0,0 +1,46 @@
+package com.polaroid.repository;
+
+import com.polaroid.model.ImageThumbnail;
+import com.polaroid.model.enums.ThumbnailState;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ImageThumbnailRepository extends JpaRepository<ImageThumbnail, String> {
+    
+    @Query("SELECT t.originalKey FROM ImageThumbnail t WHERE t.originalKey IN :keys AND t.state = 'READY'")
+    List<String> findReadyKeys(@Param("keys") Collection<String> keys);
+    
+    @Query("SELECT t.originalKey FROM ImageThumbnail t WHERE t.state = 'PENDING' AND t.updatedAt < :before " +
+           "ORDER BY t.updatedAt")
+    List<String> findPendingKeys(@Param("before") LocalDateTime before, Limit limit);
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE ImageThumbnail t SET t.state = :state, t.attempts = t.attempts + 1, t.lastError = :error, " +
+           "t.updatedAt = :now WHERE t.originalKey = :key")
+    int recordAttempt(
+            @Param("key") String key,
+            @Param("state") ThumbnailState state,
+            @Param("error") String error,
+            @Param("now") LocalDateTime now
+    );
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE ImageThumbnail t SET t.state = :failed WHERE t.originalKey = :key AND t.attempts >= :maxAttempts")
+    int failIfExhausted(
+            @Param("key") String key,
+            @Param("failed") ThumbnailState failed,
+            @Param("maxAttempts") int maxAttempts
+    );
+}
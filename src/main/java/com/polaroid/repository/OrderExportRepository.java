@@ -0,0 +1,73 @@
+package com.polaroid.repository;
+
+import com.polaroid.model.Order;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Forward-only reads for order exports. Only scalar columns are selected, so
+ * no entities or lazy collections enter the persistence context, and the JDBC
+ * fetch size makes the driver pull rows from a server-side cursor in chunks
+ * (Postgres needs the surrounding transaction for that).
+ */
+@Repository
+public class OrderExportRepository {
+    
+    public static final List<String> COLUMNS = List.of(
+            "orderNumber", "customerName", "customerEmail", "customerPhone", "customerState",
+            "status", "paymentStatus", "paymentMethod", "subtotal", "shipping", "total",
+            "trackingNumber", "paidAt", "shippedAt", "deliveredAt", "cancelledAt", "createdAt");
+    
+    @FunctionalInterface
+    public interface RowWriter {
+        void write(Tuple row) throws IOException;
+    }
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    /**
+     * Streams the matching orders, newest first, into {@code writer} and
+     * returns the number of rows written.
+     */
+    @Transactional(readOnly = true)
+    public long export(Specification<Order> spec, int fetchSize, RowWriter writer) throws IOException {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Order> root = query.from(Order.class);
+        query.multiselect(COLUMNS.stream().<Selection<?>>map(column -> root.get(column).alias(column)).toList());
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(cb.desc(root.get("createdAt")), cb.desc(root.get("id")));
+        
+        long count = 0;
+        try (Stream<Tuple> rows = entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()) {
+            Iterator<Tuple> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+                count++;
+            }
+        }
+        return count;
+    }
+}
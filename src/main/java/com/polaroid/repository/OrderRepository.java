@@ -1,44 +1,63 @@
 package com.polaroid.repository;
 
+import com.polaroid.dto.projection.OrderOverviewCounts;
+import com.polaroid.dto.projection.OrderTrackingTarget;
 import com.polaroid.model.Order;
 import com.polaroid.model.enums.OrderStatus;
 import com.polaroid.model.enums.PaymentStatus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order, UUID> {
+public interface OrderRepository extends JpaRepository<Order, UUID>, JpaSpecificationExecutor<Order> {
     Optional<Order> findByOrderNumber(String orderNumber);
     
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Order> findForUpdateByOrderNumber(String orderNumber);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Order> findAllForUpdateByIdIn(Collection<UUID> ids);
+    
+    List<OrderTrackingTarget> findTrackingTargetsByOrderNumberIn(Collection<String> orderNumbers);
+    
+    @EntityGraph(attributePaths = "items")
+    Optional<Order> findWithItemsByOrderNumber(String orderNumber);
+    
+    @EntityGraph(attributePaths = "items")
+    Optional<Order> findWithItemsById(UUID id);
+    
     Page<Order> findByUserId(UUID userId, Pageable pageable);
     Page<Order> findByAffiliateId(UUID affiliateId, Pageable pageable);
     Page<Order> findByStatus(OrderStatus status, Pageable pageable);
     Page<Order> findByPaymentStatus(PaymentStatus paymentStatus, Pageable pageable);
     
-    @Query("SELECT o FROM Order o WHERE " +
-           "(:status IS NULL OR o.status = :status) AND " +
-           "(:paymentStatus IS NULL OR o.paymentStatus = :paymentStatus) AND " +
-           "(:customerState IS NULL OR o.customerState = :customerState) AND " +
-           "(:fromDate IS NULL OR o.createdAt >= :fromDate) AND " +
-           "(:toDate IS NULL OR o.createdAt <= :toDate)")
-    Page<Order> findWithFilters(
-            @Param("status") OrderStatus status,
-            @Param("paymentStatus") PaymentStatus paymentStatus,
-            @Param("customerState") String customerState,
-            @Param("fromDate") LocalDateTime fromDate,
-            @Param("toDate") LocalDateTime toDate,
-            Pageable pageable
-    );
+    @Query("SELECT COUNT(o) AS totalOrders, " +
+           "COALESCE(SUM(CASE WHEN o.status = 'PENDING' THEN 1 ELSE 0 END), 0) AS pendingOrders, " +
+           "COALESCE(SUM(CASE WHEN o.status = 'PROCESSING' THEN 1 ELSE 0 END), 0) AS processingOrders, " +
+           "COALESCE(SUM(CASE WHEN o.status = 'DELIVERED' THEN 1 ELSE 0 END), 0) AS deliveredOrders, " +
+           "COALESCE(SUM(CASE WHEN o.status = 'CANCELLED' THEN 1 ELSE 0 END), 0) AS cancelledOrders, " +
+           "COALESCE(SUM(CASE WHEN o.paymentStatus = 'PAID' THEN 1 ELSE 0 END), 0) AS paidOrders, " +
+           "COALESCE(SUM(CASE WHEN o.paymentStatus = 'PENDING' THEN 1 ELSE 0 END), 0) AS pendingPayments, " +
+           "COALESCE(SUM(CASE WHEN o.paymentStatus = 'PAID' AND o.createdAt BETWEEN :from AND :to " +
+           "THEN o.total ELSE 0 END), 0) AS totalRevenue " +
+           "FROM Order o")
+    OrderOverviewCounts getOverviewCounts(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
     
     @Query("SELECT COUNT(o) FROM Order o WHERE o.status = :status")
     long countByStatus(@Param("status") OrderStatus status);
@@ -59,10 +78,40 @@ public interface OrderRepository extends JpaRepository<Order, UUID> {
     @Query("SELECT o.status, COUNT(o) FROM Order o GROUP BY o.status")
     List<Object[]> countByStatusGrouped();
     
+    @Query("SELECT o.status, o.paymentStatus, o.customerState, COUNT(o) FROM Order o " +
+           "GROUP BY o.status, o.paymentStatus, o.customerState")
+    List<Object[]> countByStatusPaymentAndState();
+    
+    @Query("SELECT FUNCTION('DATE', o.createdAt), SUM(o.total) FROM Order o " +
+           "WHERE o.paymentStatus = 'PAID' AND o.createdAt >= :from GROUP BY FUNCTION('DATE', o.createdAt)")
+    List<Object[]> sumPaidRevenueByDay(@Param("from") LocalDateTime from);
+    
     @Query("SELECT FUNCTION('DATE', o.createdAt), COUNT(o), SUM(o.total) FROM Order o " +
            "WHERE o.createdAt BETWEEN :from AND :to GROUP BY FUNCTION('DATE', o.createdAt)")
     List<Object[]> getDailySales(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
     
+    // Timestamps are only overwritten when a value is passed, and the cancel reason
+    // only on cancellation (where a null message clears it), like the single-order path
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :status, " +
+           "o.shippedAt = COALESCE(:shippedAt, o.shippedAt), " +
+           "o.deliveredAt = COALESCE(:deliveredAt, o.deliveredAt), " +
+           "o.cancelledAt = COALESCE(:cancelledAt, o.cancelledAt), " +
+           "o.cancelReason = CASE WHEN :setCancelReason = true THEN :cancelReason ELSE o.cancelReason END, " +
+           "o.updatedAt = :now, o.updatedBy = :updatedBy " +
+           "WHERE o.id IN :ids")
+    int updateStatusIn(
+            @Param("ids") Collection<UUID> ids,
+            @Param("status") OrderStatus status,
+            @Param("shippedAt") LocalDateTime shippedAt,
+            @Param("deliveredAt") LocalDateTime deliveredAt,
+            @Param("cancelledAt") LocalDateTime cancelledAt,
+            @Param("setCancelReason") boolean setCancelReason,
+            @Param("cancelReason") String cancelReason,
+            @Param("now") LocalDateTime now,
+            @Param("updatedBy") String updatedBy
+    );
+    
     long countByAffiliateId(UUID affiliateId);
     
     List<Order> findByPaymentStatusAndPaidAtBetween(PaymentStatus paymentStatus, LocalDateTime from, LocalDateTime to);
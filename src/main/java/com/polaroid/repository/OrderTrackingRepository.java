@@ -0,0 +1,100 @@
+package com.polaroid.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * JDBC batch writes for tracking imports: one round trip per statement kind
+ * per chunk instead of an entity load and save per row.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderTrackingRepository {
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    public record TrackingUpdate(UUID orderId, String trackingNumber) {
+    }
+    
+    /**
+     * Sets the tracking number on orders that are not cancelled. Returns, for
+     * each update in order, whether it matched a row.
+     */
+    public boolean[] updateTrackingNumbers(List<TrackingUpdate> updates, LocalDateTime now, String updatedBy) {
+        int[][] counts = jdbcTemplate.batchUpdate(
+                "UPDATE orders SET tracking_number = ?, updated_at = ?, updated_by = ? " +
+                "WHERE id = ? AND status <> 'CANCELLED'",
+                updates, updates.size(),
+                (ps, update) -> {
+                    ps.setString(1, update.trackingNumber());
+                    ps.setTimestamp(2, Timestamp.valueOf(now));
+                    ps.setString(3, updatedBy);
+                    ps.setObject(4, update.orderId());
+                });
+        return matched(counts, updates.size());
+    }
+    
+    /**
+     * Sets the tracking number and moves the order to POSTED, guarded on the
+     * status read by the caller so a concurrent change is not overwritten.
+     * Returns the ids that were actually moved.
+     */
+    public List<UUID> markPosted(List<TrackingUpdate> updates, LocalDateTime now, String updatedBy) {
+        int[][] counts = jdbcTemplate.batchUpdate(
+                "UPDATE orders SET tracking_number = ?, status = 'POSTED', shipped_at = ?, updated_at = ?, updated_by = ? " +
+                "WHERE id = ? AND status IN ('PENDING', 'PROCESSING')",
+                updates, updates.size(),
+                (ps, update) -> {
+                    ps.setString(1, update.trackingNumber());
+                    ps.setTimestamp(2, Timestamp.valueOf(now));
+                    ps.setTimestamp(3, Timestamp.valueOf(now));
+                    ps.setString(4, updatedBy);
+                    ps.setObject(5, update.orderId());
+                });
+        
+        boolean[] matched = matched(counts, updates.size());
+        List<UUID> posted = new ArrayList<>(updates.size());
+        for (int i = 0; i < matched.length; i++) {
+            if (matched[i]) {
+                posted.add(updates.get(i).orderId());
+            }
+        }
+        return posted;
+    }
+    
+    private static boolean[] matched(int[][] counts, int size) {
+        boolean[] matched = new boolean[size];
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                matched[index++] = count > 0 || count == Statement.SUCCESS_NO_INFO;
+            }
+        }
+        return matched;
+    }
+    
+    public void insertStatusHistory(List<UUID> orderIds, String status, String message, LocalDateTime now, String createdBy) {
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO order_status_history (id, order_id, status, message, created_at, updated_at, created_by, updated_by) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                orderIds, orderIds.size(),
+                (ps, orderId) -> {
+                    ps.setObject(1, UUID.randomUUID());
+                    ps.setObject(2, orderId);
+                    ps.setString(3, status);
+                    ps.setString(4, message);
+                    ps.setTimestamp(5, Timestamp.valueOf(now));
+                    ps.setTimestamp(6, Timestamp.valueOf(now));
+                    ps.setString(7, createdBy);
+                    ps.setString(8, createdBy);
+                });
+    }
+}
@@ -0,0 +1,46 @@
+package com.polaroid.repository;
+
+import com.polaroid.model.PaymentRequest;
+import com.polaroid.model.enums.PaymentRequestStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface PaymentRequestRepository extends JpaRepository<PaymentRequest, UUID> {
+    Optional<PaymentRequest> findFirstByOrderIdAndStatusIn(UUID orderId, Collection<PaymentRequestStatus> statuses);
+    Optional<PaymentRequest> findFirstByOrderIdOrderByCreatedAtDesc(UUID orderId);
+    
+    // lock.timeout -2 is SKIP LOCKED: a row another node is claiming is skipped, not waited on
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT p FROM PaymentRequest p WHERE p.id = :id AND p.status = 'PENDING'")
+    Optional<PaymentRequest> findPendingForUpdate(@Param("id") UUID id);
+    
+    @Query("SELECT p.id FROM PaymentRequest p WHERE p.status = 'PENDING' AND p.nextAttemptAt <= :now " +
+           "ORDER BY p.nextAttemptAt")
+    List<UUID> findDueIds(@Param("now") LocalDateTime now, Limit limit);
+    
+    @Modifying
+    @Query("UPDATE PaymentRequest p SET p.status = :pending, p.nextAttemptAt = :now " +
+           "WHERE p.status = :processing AND p.updatedAt < :staleBefore")
+    int resetStale(
+            @Param("pending") PaymentRequestStatus pending,
+            @Param("processing") PaymentRequestStatus processing,
+            @Param("staleBefore") LocalDateTime staleBefore,
+            @Param("now") LocalDateTime now
+    );
+}
@@ -0,0 +1,32 @@
+package com.polaroid.repository;
+
+import java.util.Locale;
+
+/**
+ * Builds lower-cased LIKE patterns for the trigram-indexed search queries.
+ * Wildcards in user input are escaped with '\', which the queries declare as
+ * their ESCAPE character.
+ */
+public final class SearchPatterns {
+    
+    public static final char ESCAPE = '\\';
+    
+    private SearchPatterns() {
+    }
+    
+    public static String normalize(String term) {
+        return term.trim().toLowerCase(Locale.ROOT);
+    }
+    
+    public static String contains(String term) {
+        return "%" + escape(normalize(term)) + "%";
+    }
+    
+    public static String startsWith(String term) {
+        return escape(normalize(term)) + "%";
+    }
+    
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
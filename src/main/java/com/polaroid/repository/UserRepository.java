@@ -5,8 +5,12 @@ import com.polaroid.model.enums.Role;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -17,6 +21,27 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     boolean existsByEmail(String email);
     boolean existsByAffiliateCode(String affiliateCode);
     Page<User> findByRole(Role role, Pageable pageable);
-    Page<User> findByNameContainingIgnoreCaseOrEmailContainingIgnoreCase(String name, String email, Pageable pageable);
+    
+    @Query(value = "SELECT u FROM User u " +
+           "WHERE LOWER(u.name) LIKE :pattern ESCAPE '\\' OR LOWER(u.email) LIKE :pattern ESCAPE '\\' " +
+           "ORDER BY CASE " +
+           "WHEN LOWER(u.email) = :term THEN 0 " +
+           "WHEN LOWER(u.email) LIKE :prefix ESCAPE '\\' OR LOWER(u.name) LIKE :prefix ESCAPE '\\' THEN 1 " +
+           "ELSE 2 END, u.createdAt DESC",
+           countQuery = "SELECT COUNT(u) FROM User u " +
+           "WHERE LOWER(u.name) LIKE :pattern ESCAPE '\\' OR LOWER(u.email) LIKE :pattern ESCAPE '\\'")
+    Page<User> searchRanked(
+            @Param("term") String term,
+            @Param("prefix") String prefix,
+            @Param("pattern") String pattern,
+            Pageable pageable
+    );
+    
     long countByRole(Role role);
+    
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.email = :email")
+    Optional<Long> findTokenVersionByEmail(@Param("email") String email);
+    
+    @Query("SELECT u.email, u.tokenVersion FROM User u WHERE u.updatedAt > :since")
+    List<Object[]> findTokenVersionsUpdatedSince(@Param("since") LocalDateTime since);
 }
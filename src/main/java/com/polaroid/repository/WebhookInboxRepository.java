@@ -0,0 +1,58 @@
+package com.polaroid.repository;
+
+import com.polaroid.model.WebhookInboxEntry;
+import com.polaroid.model.enums.WebhookInboxState;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface WebhookInboxRepository extends JpaRepository<WebhookInboxEntry, Long> {
+    
+    // lock.timeout -2 is SKIP LOCKED: rows another node is claiming are skipped
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT w FROM WebhookInboxEntry w WHERE w.state = 'PENDING' " +
+           "AND (w.nextAttemptAt IS NULL OR w.nextAttemptAt <= :now) ORDER BY w.id")
+    List<WebhookInboxEntry> findPendingForUpdate(@Param("now") LocalDateTime now, Limit limit);
+    
+    @Modifying
+    @Query("UPDATE WebhookInboxEntry w SET w.state = :state, w.processedAt = :now, w.lastError = :error " +
+           "WHERE w.id IN :ids")
+    int markFinished(
+            @Param("ids") Collection<Long> ids,
+            @Param("state") WebhookInboxState state,
+            @Param("error") String error,
+            @Param("now") LocalDateTime now
+    );
+    
+    @Modifying
+    @Query("UPDATE WebhookInboxEntry w SET w.state = :pending, w.lastError = :error, " +
+           "w.nextAttemptAt = :nextAttemptAt WHERE w.id IN :ids")
+    int release(
+            @Param("ids") Collection<Long> ids,
+            @Param("pending") WebhookInboxState pending,
+            @Param("error") String error,
+            @Param("nextAttemptAt") LocalDateTime nextAttemptAt
+    );
+    
+    @Modifying
+    @Query("UPDATE WebhookInboxEntry w SET w.state = :pending " +
+           "WHERE w.state = :processing AND w.claimedAt < :staleBefore")
+    int resetStale(
+            @Param("pending") WebhookInboxState pending,
+            @Param("processing") WebhookInboxState processing,
+            @Param("staleBefore") LocalDateTime staleBefore
+    );
+}
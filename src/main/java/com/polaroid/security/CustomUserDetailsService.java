@@ -21,6 +21,10 @@ public class CustomUserDetailsService implements UserDetailsService {
         com.polaroid.model.User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + email));
         
+        return toUserDetails(user);
+    }
+    
+    static UserDetails toUserDetails(com.polaroid.model.User user) {
         return User.builder()
                 .username(user.getEmail())
                 .password(user.getPasswordHash())
@@ -7,77 +7,138 @@ import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 public class JwtTokenProvider {
     
+    private static final String TOKEN_VERSION_CLAIM = "ver";
+    
     private final SecretKey key;
     private final long expiration;
     private final long refreshExpiration;
+    private final JwtParser parser;
+    private final int claimsCacheSize;
+    private final Map<String, Claims> verifiedClaims = new ConcurrentHashMap<>();
     
     public JwtTokenProvider(
             @Value("${jwt.secret}") String secret,
             @Value("${jwt.expiration}") long expiration,
-            @Value("${jwt.refresh-expiration}") long refreshExpiration) {
+            @Value("${jwt.refresh-expiration}") long refreshExpiration,
+            @Value("${jwt.claims-cache.max-size:10000}") int claimsCacheSize) {
         this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
         this.expiration = expiration;
         this.refreshExpiration = refreshExpiration;
+        this.parser = Jwts.parser().verifyWith(key).build();
+        this.claimsCacheSize = claimsCacheSize;
     }
     
-    public String generateToken(String email, String role) {
+    public String generateToken(String email, String role, long tokenVersion) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + expiration);
         
         return Jwts.builder()
                 .subject(email)
                 .claim("role", role)
+                .claim(TOKEN_VERSION_CLAIM, tokenVersion)
                 .issuedAt(now)
                 .expiration(expiryDate)
                 .signWith(key)
                 .compact();
     }
     
-    public String generateRefreshToken(String email) {
+    public String generateRefreshToken(String email, long tokenVersion) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + refreshExpiration);
         
         return Jwts.builder()
                 .subject(email)
+                .claim(TOKEN_VERSION_CLAIM, tokenVersion)
                 .issuedAt(now)
                 .expiration(expiryDate)
                 .signWith(key)
                 .compact();
     }
     
+    /**
+     * Verifies the token once and returns its claims, or null when the token is
+     * malformed, tampered with or expired. Recently verified tokens are served
+     * from a small cache keyed by token hash until they expire.
+     */
+    public Claims parseClaims(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        
+        long now = System.currentTimeMillis();
+        String cacheKey = claimsCacheSize > 0 ? hash(token) : null;
+        if (cacheKey != null) {
+            Claims cached = verifiedClaims.get(cacheKey);
+            if (cached != null) {
+                if (cached.getExpiration().getTime() > now) {
+                    return cached;
+                }
+                verifiedClaims.remove(cacheKey);
+            }
+        }
+        
+        Claims claims;
+        try {
+            claims = parser.parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+        
+        if (cacheKey != null && claims.getExpiration() != null) {
+            if (verifiedClaims.size() >= claimsCacheSize) {
+                verifiedClaims.values().removeIf(entry -> entry.getExpiration().getTime() <= now);
+                if (verifiedClaims.size() >= claimsCacheSize) {
+                    verifiedClaims.clear();
+                }
+            }
+            verifiedClaims.put(cacheKey, claims);
+        }
+        return claims;
+    }
+    
     public String getEmailFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        return claims.getSubject();
+        Claims claims = parseClaims(token);
+        return claims != null ? claims.getSubject() : null;
     }
     
     public String getRoleFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        return claims.get("role", String.class);
+        Claims claims = parseClaims(token);
+        return claims != null ? claims.get("role", String.class) : null;
+    }
+    
+    /**
+     * Token version the claims were issued at; tokens issued before versioning
+     * count as version 0.
+     */
+    public static long getTokenVersion(Claims claims) {
+        Object version = claims.get(TOKEN_VERSION_CLAIM);
+        return version instanceof Number number ? number.longValue() : 0L;
     }
     
     public boolean validateToken(String token) {
-        try {
-            Jwts.parser().verifyWith(key).build().parseSignedClaims(token);
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            return false;
-        }
+        return parseClaims(token) != null;
     }
     
     public long getExpirationTime() {
         return expiration;
     }
+    
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
 }
@@ -0,0 +1,93 @@
+package com.polaroid.security;
+
+import com.polaroid.exception.TooManyRequestsException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fixed-window counters for the password endpoints, checked before any
+ * password hashing is done. Every attempt counts against the client IP; only
+ * failed logins count against an email, and per client IP, so nobody can lock
+ * an account out by hammering it with bad passwords from elsewhere.
+ */
+@Component
+public class LoginRateLimiter {
+    
+    private final int maxPerIp;
+    private final int maxPerEmail;
+    private final long windowMillis;
+    
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+    
+    public LoginRateLimiter(
+            @Value("${security.login-rate-limit.per-ip:30}") int maxPerIp,
+            @Value("${security.login-rate-limit.per-email:10}") int maxPerEmail,
+            @Value("${security.login-rate-limit.window:1m}") Duration window) {
+        this.maxPerIp = maxPerIp;
+        this.maxPerEmail = maxPerEmail;
+        this.windowMillis = window.toMillis();
+    }
+    
+    public void checkLogin(String clientIp, String email) {
+        acquire("ip:" + clientIp, maxPerIp);
+        if (email != null) {
+            Window failures = windows.get(failureKey(clientIp, email));
+            if (failures != null && !isExpired(failures, System.currentTimeMillis()) && failures.count() >= maxPerEmail) {
+                throw new TooManyRequestsException("Too many attempts, please try again later");
+            }
+        }
+    }
+    
+    public void recordFailure(String clientIp, String email) {
+        if (email != null) {
+            increment(failureKey(clientIp, email));
+        }
+    }
+    
+    public void recordSuccess(String clientIp, String email) {
+        if (email != null) {
+            windows.remove(failureKey(clientIp, email));
+        }
+    }
+    
+    public void checkRegister(String clientIp) {
+        acquire("ip:" + clientIp, maxPerIp);
+    }
+    
+    @Scheduled(fixedDelayString = "${security.login-rate-limit.cleanup-interval-ms:60000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        windows.values().removeIf(window -> isExpired(window, now));
+    }
+    
+    private void acquire(String key, int limit) {
+        if (increment(key).count() > limit) {
+            throw new TooManyRequestsException("Too many attempts, please try again later");
+        }
+    }
+    
+    private Window increment(String key) {
+        long now = System.currentTimeMillis();
+        return windows.compute(key, (k, current) ->
+                current == null || isExpired(current, now)
+                        ? new Window(now, 1)
+                        : new Window(current.start(), current.count() + 1));
+    }
+    
+    private boolean isExpired(Window window, long now) {
+        return window.start() + windowMillis <= now;
+    }
+    
+    private static String failureKey(String clientIp, String email) {
+        return "fail:" + clientIp + ":" + email.trim().toLowerCase(Locale.ROOT);
+    }
+    
+    private record Window(long start, int count) {
+    }
+}
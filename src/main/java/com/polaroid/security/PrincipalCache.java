@@ -0,0 +1,93 @@
+package com.polaroid.security;
+
+import com.polaroid.dto.mapper.UserMapper;
+import com.polaroid.dto.response.UserResponse;
+import com.polaroid.event.UserChangedEvent;
+import com.polaroid.model.User;
+import com.polaroid.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded, TTL-based cache of authenticated principals keyed by email, shared by
+ * the JWT filter and getCurrentUser so a steady-state request does no user
+ * lookups. Entries are evicted after commit when a user's role, active flag or
+ * profile changes; the TTL bounds staleness for changes made on other nodes.
+ */
+@Component
+public class PrincipalCache {
+    
+    private final UserRepository userRepository;
+    private final UserMapper userMapper;
+    private final long ttlMillis;
+    private final int maxSize;
+    
+    private final Map<String, CachedPrincipal> entries = new ConcurrentHashMap<>();
+    
+    public PrincipalCache(
+            UserRepository userRepository,
+            UserMapper userMapper,
+            @Value("${security.principal-cache.ttl:60s}") Duration ttl,
+            @Value("${security.principal-cache.max-size:10000}") int maxSize) {
+        this.userRepository = userRepository;
+        this.userMapper = userMapper;
+        this.ttlMillis = ttl.toMillis();
+        this.maxSize = maxSize;
+    }
+    
+    /**
+     * Returns the cached principal for the email, loading it on a miss or after
+     * expiry. Returns null when no such user exists; misses are not cached.
+     */
+    public CachedPrincipal get(String email) {
+        long now = System.currentTimeMillis();
+        CachedPrincipal cached = entries.get(email);
+        if (cached != null && cached.expiresAt() > now) {
+            return cached;
+        }
+        
+        User user = userRepository.findByEmail(email).orElse(null);
+        if (user == null) {
+            entries.remove(email);
+            return null;
+        }
+        
+        CachedPrincipal loaded = new CachedPrincipal(
+                CustomUserDetailsService.toUserDetails(user),
+                userMapper.toDto(user),
+                now + ttlMillis);
+        if (entries.size() >= maxSize) {
+            shrink(now);
+        }
+        entries.put(email, loaded);
+        return loaded;
+    }
+    
+    public void evict(String email) {
+        entries.remove(email);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        evict(event.getEmail());
+    }
+    
+    private void shrink(long now) {
+        entries.values().removeIf(entry -> entry.expiresAt() <= now);
+        Iterator<String> keys = entries.keySet().iterator();
+        while (entries.size() >= maxSize && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+    
+    public record CachedPrincipal(UserDetails userDetails, UserResponse user, long expiresAt) {
+    }
+}
@@ -0,0 +1,111 @@
+package com.polaroid.security;
+
+import com.polaroid.event.UserChangedEvent;
+import com.polaroid.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory view of each user's token version, used to reject stateless JWTs
+ * issued before a role change or deactivation. A version is loaded once per
+ * user per node; local changes evict it after commit and changes made on other
+ * nodes are picked up by polling users.updated_at. Entries expire after a TTL
+ * and the map is capped, so users who stop calling the API are dropped.
+ */
+@Component
+@Slf4j
+public class TokenVersionStore {
+    
+    private static final long POLL_OVERLAP_SECONDS = 60;
+    
+    private final UserRepository userRepository;
+    private final long ttlMillis;
+    private final int maxSize;
+    
+    private final Map<String, CachedVersion> versions = new ConcurrentHashMap<>();
+    private volatile LocalDateTime lastPoll = LocalDateTime.now();
+    
+    public TokenVersionStore(
+            UserRepository userRepository,
+            @Value("${security.token-version.ttl:10m}") Duration ttl,
+            @Value("${security.token-version.max-size:10000}") int maxSize) {
+        this.userRepository = userRepository;
+        this.ttlMillis = ttl.toMillis();
+        this.maxSize = maxSize;
+    }
+    
+    /**
+     * Returns the user's current token version, or null when the user does not
+     * exist.
+     */
+    public Long currentVersion(String email) {
+        long now = System.currentTimeMillis();
+        CachedVersion cached = versions.get(email);
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.version();
+        }
+        
+        Long version = userRepository.findTokenVersionByEmail(email).orElse(null);
+        if (version == null) {
+            versions.remove(email);
+            return null;
+        }
+        
+        if (versions.size() >= maxSize) {
+            shrink(now);
+        }
+        versions.put(email, new CachedVersion(version, now + ttlMillis));
+        return version;
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        versions.remove(event.getEmail());
+    }
+    
+    @Scheduled(fixedDelayString = "${security.token-version.poll-interval-ms:10000}")
+    public void pollChanges() {
+        long now = System.currentTimeMillis();
+        versions.values().removeIf(entry -> entry.expiresAt() <= now);
+        if (versions.isEmpty()) {
+            lastPoll = LocalDateTime.now();
+            return;
+        }
+        
+        LocalDateTime started = LocalDateTime.now();
+        try {
+            List<Object[]> changed = userRepository.findTokenVersionsUpdatedSince(
+                    lastPoll.minusSeconds(POLL_OVERLAP_SECONDS));
+            for (Object[] row : changed) {
+                versions.computeIfPresent((String) row[0],
+                        (email, old) -> new CachedVersion((Long) row[1], old.expiresAt()));
+            }
+            lastPoll = started;
+        } catch (DataAccessException e) {
+            log.warn("Failed to poll token versions: {}", e.getMessage());
+        }
+    }
+    
+    private void shrink(long now) {
+        versions.values().removeIf(entry -> entry.expiresAt() <= now);
+        Iterator<String> keys = versions.keySet().iterator();
+        while (versions.size() >= maxSize && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+    
+    private record CachedVersion(long version, long expiresAt) {
+    }
+}
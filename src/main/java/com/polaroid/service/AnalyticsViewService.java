@@ -0,0 +1,95 @@
+package com.polaroid.service;
+
+import com.polaroid.repository.AnalyticsViewRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AnalyticsViewService {
+    
+    private final AnalyticsViewRepository analyticsViewRepository;
+    
+    @Value("${stats.views.enabled:true}")
+    private boolean enabled;
+    
+    private volatile Boolean available;
+    
+    public boolean isAvailable() {
+        if (available == null) {
+            available = enabled && detectViews();
+        }
+        return available;
+    }
+    
+    /**
+     * Also re-detects the views on every run, so views created after startup
+     * (or dropped) switch the stats source within one refresh interval.
+     */
+    @Scheduled(fixedDelayString = "${stats.views.refresh-interval-ms:300000}")
+    public void refreshViews() {
+        available = enabled && detectViews();
+        if (!available) {
+            return;
+        }
+        
+        try {
+            long startedAt = System.currentTimeMillis();
+            if (analyticsViewRepository.refreshViews()) {
+                log.debug("Refreshed analytics views in {} ms", System.currentTimeMillis() - startedAt);
+            } else {
+                log.debug("Analytics views are being refreshed by another node, skipping");
+            }
+        } catch (DataAccessException e) {
+            log.warn("Failed to refresh analytics views: {}", e.getMessage());
+        }
+    }
+    
+    public LocalDateTime getOldestRefresh() {
+        if (!isAvailable()) {
+            return null;
+        }
+        return analyticsViewRepository.findRefreshTimes().values().stream()
+                .filter(refreshedAt -> refreshedAt != null)
+                .min(LocalDateTime::compareTo)
+                .orElse(null);
+    }
+    
+    public Map<String, Object> getFreshness() {
+        Map<String, Object> freshness = new HashMap<>();
+        freshness.put("source", isAvailable() ? "materialized" : "live");
+        
+        if (isAvailable()) {
+            LocalDateTime now = LocalDateTime.now();
+            Map<String, Object> views = new HashMap<>();
+            analyticsViewRepository.findRefreshTimes().forEach((view, refreshedAt) -> {
+                Map<String, Object> info = new HashMap<>();
+                info.put("refreshedAt", refreshedAt);
+                info.put("stalenessSeconds", refreshedAt != null ? Duration.between(refreshedAt, now).toSeconds() : null);
+                views.put(view, info);
+            });
+            freshness.put("views", views);
+        }
+        
+        return freshness;
+    }
+    
+    private boolean detectViews() {
+        try {
+            return analyticsViewRepository.viewsExist();
+        } catch (DataAccessException e) {
+            log.info("Analytics views not available, using live queries: {}", e.getMessage());
+            return false;
+        }
+    }
+}
@@ -9,10 +9,13 @@ import com.polaroid.model.User;
 import com.polaroid.model.enums.Role;
 import com.polaroid.repository.UserRepository;
 import com.polaroid.security.JwtTokenProvider;
+import com.polaroid.security.LoginRateLimiter;
+import com.polaroid.security.PrincipalCache;
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -27,9 +30,13 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtTokenProvider tokenProvider;
     private final AuthenticationManager authenticationManager;
+    private final PrincipalCache principalCache;
+    private final LoginRateLimiter loginRateLimiter;
     
     @Transactional
-    public AuthResponse register(RegisterRequest request) {
+    public AuthResponse register(RegisterRequest request, String clientIp) {
+        loginRateLimiter.checkRegister(clientIp);
+        
         if (userRepository.existsByEmail(request.getEmail())) {
             throw new BadRequestException("Email already registered");
         }
@@ -51,8 +58,8 @@ public class AuthService {
         
         User savedUser = userRepository.save(user);
         
-        String token = tokenProvider.generateToken(savedUser.getEmail(), savedUser.getRole().name());
-        String refreshToken = tokenProvider.generateRefreshToken(savedUser.getEmail());
+        String token = tokenProvider.generateToken(savedUser.getEmail(), savedUser.getRole().name(), savedUser.getTokenVersion());
+        String refreshToken = tokenProvider.generateRefreshToken(savedUser.getEmail(), savedUser.getTokenVersion());
         
         return AuthResponse.builder()
                 .token(token)
@@ -64,10 +71,18 @@ public class AuthService {
                 .build();
     }
     
-    public AuthResponse login(LoginRequest request) {
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
-        );
+    public AuthResponse login(LoginRequest request, String clientIp) {
+        loginRateLimiter.checkLogin(clientIp, request.getEmail());
+        
+        try {
+            authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
+            );
+        } catch (BadCredentialsException e) {
+            loginRateLimiter.recordFailure(clientIp, request.getEmail());
+            throw e;
+        }
+        loginRateLimiter.recordSuccess(clientIp, request.getEmail());
         
         User user = userRepository.findByEmail(request.getEmail())
                 .orElseThrow(() -> new BadRequestException("User not found"));
@@ -76,8 +91,8 @@ public class AuthService {
             throw new BadRequestException("Account is disabled");
         }
         
-        String token = tokenProvider.generateToken(user.getEmail(), user.getRole().name());
-        String refreshToken = tokenProvider.generateRefreshToken(user.getEmail());
+        String token = tokenProvider.generateToken(user.getEmail(), user.getRole().name(), user.getTokenVersion());
+        String refreshToken = tokenProvider.generateRefreshToken(user.getEmail(), user.getTokenVersion());
         
         return AuthResponse.builder()
                 .token(token)
@@ -90,33 +105,29 @@ public class AuthService {
     }
     
     public UserResponse getCurrentUser(String email) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new BadRequestException("User not found"));
-        
-        return UserResponse.builder()
-                .id(user.getId().toString())
-                .email(user.getEmail())
-                .name(user.getName())
-                .phone(user.getPhone())
-                .avatarUrl(user.getAvatarUrl())
-                .role(user.getRole())
-                .affiliateCode(user.getAffiliateCode())
-                .isActive(user.getIsActive())
-                .createdAt(user.getCreatedAt())
-                .build();
+        PrincipalCache.CachedPrincipal principal = principalCache.get(email);
+        if (principal == null) {
+            throw new BadRequestException("User not found");
+        }
+        return principal.user();
     }
     
     public AuthResponse refreshToken(String refreshToken) {
-        if (!tokenProvider.validateToken(refreshToken)) {
+        Claims claims = tokenProvider.parseClaims(refreshToken);
+        if (claims == null) {
             throw new BadRequestException("Invalid refresh token");
         }
         
-        String email = tokenProvider.getEmailFromToken(refreshToken);
+        String email = claims.getSubject();
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new BadRequestException("User not found"));
         
-        String newToken = tokenProvider.generateToken(user.getEmail(), user.getRole().name());
-        String newRefreshToken = tokenProvider.generateRefreshToken(user.getEmail());
+        if (!user.getIsActive() || JwtTokenProvider.getTokenVersion(claims) != user.getTokenVersion()) {
+            throw new BadRequestException("Invalid refresh token");
+        }
+        
+        String newToken = tokenProvider.generateToken(user.getEmail(), user.getRole().name(), user.getTokenVersion());
+        String newRefreshToken = tokenProvider.generateRefreshToken(user.getEmail(), user.getTokenVersion());
         
         return AuthResponse.builder()
                 .token(newToken)
@@ -133,7 +144,9 @@ public class AuthService {
     }
     
     @Transactional
-    public AuthResponse registerAsAdmin(RegisterRequest request) {
+    public AuthResponse registerAsAdmin(RegisterRequest request, String clientIp) {
+        loginRateLimiter.checkRegister(clientIp);
+        
         if (userRepository.existsByEmail(request.getEmail())) {
             throw new BadRequestException("Email already registered");
         }
@@ -150,8 +163,8 @@ public class AuthService {
         
         User savedUser = userRepository.save(user);
         
-        String token = tokenProvider.generateToken(savedUser.getEmail(), savedUser.getRole().name());
-        String refreshToken = tokenProvider.generateRefreshToken(savedUser.getEmail());
+        String token = tokenProvider.generateToken(savedUser.getEmail(), savedUser.getRole().name(), savedUser.getTokenVersion());
+        String refreshToken = tokenProvider.generateRefreshToken(savedUser.getEmail(), savedUser.getTokenVersion());
         
         return AuthResponse.builder()
                 .token(token)
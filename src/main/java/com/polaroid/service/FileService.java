@@ -1,10 +1,15 @@
 package com.polaroid.service;
 
+import com.polaroid.dto.response.FileDownloadReport;
+import com.polaroid.dto.response.FileDownloadResult;
+import com.polaroid.exception.BadRequestException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.http.*;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
@@ -13,7 +18,14 @@ import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 @Service
 @RequiredArgsConstructor
@@ -21,7 +33,10 @@ import java.util.*;
 public class FileService {
     
     private final WebClient supabaseWebClient;
-    private final RestTemplate restTemplate;
+    private final RestTemplate storageRestTemplate;
+    private final ObjectFetchService objectFetchService;
+    private final ThreadPoolTaskExecutor storageUploadExecutor;
+    private final ThumbnailService thumbnailService;
     
     @Value("${supabase.url:https://placeholder.supabase.co}")
     private String supabaseUrl;
@@ -32,29 +47,48 @@ public class FileService {
     @Value("${supabase.storage-bucket:polaroid-glossy}")
     private String bucketName;
     
+    @Value("${storage.upload.max-batch-files:100}")
+    private int maxBatchFiles;
+    
+    @Value("${storage.list-page-size:100}")
+    private int listPageSize;
+    
     public Map<String, String> uploadFile(MultipartFile file, String orderId) throws IOException {
         String fileName = UUID.randomUUID().toString() + ".jpg";
-        String folder = "original/" + orderId;
+        String folder = ThumbnailService.ORIGINAL_PREFIX + orderId;
         String key = folder + "/" + fileName;
         
         try {
             String uploadUrl = String.format("%s/storage/v1/object/%s/%s", supabaseUrl, bucketName, key);
             
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.IMAGE_JPEG);
-            headers.set("Authorization", "Bearer " + supabaseKey);
-            headers.set("x-upsert", "true");
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
             
-            HttpEntity<byte[]> requestEntity = new HttpEntity<>(file.getBytes(), headers);
+            storageRestTemplate.execute(uploadUrl, HttpMethod.PUT, request -> {
+                HttpHeaders headers = request.getHeaders();
+                headers.setContentType(MediaType.IMAGE_JPEG);
+                headers.setContentLength(file.getSize());
+                headers.set("Authorization", "Bearer " + supabaseKey);
+                headers.set("x-upsert", "true");
+                
+                writeBody(request, outputStream -> {
+                    try (InputStream inputStream = new DigestInputStream(file.getInputStream(), digest)) {
+                        inputStream.transferTo(outputStream);
+                    }
+                });
+            }, response -> null);
             
-            restTemplate.exchange(uploadUrl, HttpMethod.PUT, requestEntity, String.class);
+            thumbnailService.generateAsync(key);
             
             String publicUrl = getPublicUrl(key);
             
             Map<String, String> result = new HashMap<>();
             result.put("key", key);
             result.put("url", publicUrl);
+            // The preview is generated asynchronously, so the original stands in until it exists
+            result.put("thumbnailUrl", publicUrl);
             result.put("fileName", fileName);
+            result.put("sha256", HexFormat.of().formatHex(digest.digest()));
+            result.put("size", String.valueOf(file.getSize()));
             
             return result;
         } catch (Exception e) {
@@ -63,6 +97,45 @@ public class FileService {
         }
     }
     
+    public List<Map<String, String>> uploadFiles(List<MultipartFile> files, String orderId) {
+        if (files == null || files.isEmpty()) {
+            throw new BadRequestException("No files provided");
+        }
+        if (files.size() > maxBatchFiles) {
+            throw new BadRequestException("Too many files in one batch, maximum is " + maxBatchFiles);
+        }
+        
+        List<CompletableFuture<Map<String, String>>> uploads = files.stream()
+                .map(file -> CompletableFuture.supplyAsync(
+                        () -> uploadBatchFile(file, orderId), storageUploadExecutor))
+                .toList();
+        
+        return uploads.stream()
+                .map(CompletableFuture::join)
+                .toList();
+    }
+    
+    private Map<String, String> uploadBatchFile(MultipartFile file, String orderId) {
+        try {
+            Map<String, String> result = uploadFile(file, orderId);
+            result.put("originalName", file.getOriginalFilename());
+            return result;
+        } catch (IOException e) {
+            Map<String, String> result = new HashMap<>();
+            result.put("originalName", file.getOriginalFilename());
+            result.put("error", e.getMessage());
+            return result;
+        }
+    }
+    
+    private void writeBody(ClientHttpRequest request, StreamingHttpOutputMessage.Body body) throws IOException {
+        if (request instanceof StreamingHttpOutputMessage streamingRequest) {
+            streamingRequest.setBody(body);
+        } else {
+            body.writeTo(request.getBody());
+        }
+    }
+    
     public void deleteFile(String key) throws IOException {
         try {
             String deleteUrl = String.format("%s/storage/v1/object/%s/%s", supabaseUrl, bucketName, key);
@@ -72,42 +145,70 @@ public class FileService {
             
             HttpEntity<?> requestEntity = new HttpEntity<>(headers);
             
-            restTemplate.exchange(deleteUrl, HttpMethod.DELETE, requestEntity, String.class);
+            storageRestTemplate.exchange(deleteUrl, HttpMethod.DELETE, requestEntity, String.class);
         } catch (Exception e) {
             log.error("Failed to delete file: {}", e.getMessage());
             throw new IOException("Failed to delete file: " + e.getMessage());
         }
-    }
-    
-    public byte[] downloadFiles(List<String> keys) throws IOException {
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
         
-        for (String key : keys) {
+        String thumbKey = ThumbnailService.toThumbnailKey(key);
+        if (!thumbKey.equals(key)) {
             try {
-                String downloadUrl = String.format("%s/storage/v1/object/%s/%s", supabaseUrl, bucketName, key);
+                String deleteUrl = String.format("%s/storage/v1/object/%s/%s", supabaseUrl, bucketName, thumbKey);
                 
                 HttpHeaders headers = new HttpHeaders();
                 headers.set("Authorization", "Bearer " + supabaseKey);
                 
-                HttpEntity<?> requestEntity = new HttpEntity<>(headers);
-                
-                ResponseEntity<byte[]> response = restTemplate.exchange(
-                    downloadUrl, HttpMethod.GET, requestEntity, byte[].class);
-                
-                if (response.getBody() != null) {
-                    outputStream.write(response.getBody());
-                    outputStream.write(System.lineSeparator().getBytes());
-                }
+                storageRestTemplate.exchange(deleteUrl, HttpMethod.DELETE, new HttpEntity<>(headers), String.class);
+            } catch (Exception e) {
+                log.warn("Failed to delete thumbnail {}: {}", thumbKey, e.getMessage());
+            }
+            try {
+                thumbnailService.forget(key);
             } catch (Exception e) {
-                log.warn("Failed to download file {}: {}", key, e.getMessage());
+                log.warn("Failed to forget thumbnail state for {}: {}", key, e.getMessage());
             }
         }
+    }
+    
+    public FileDownloadReport writeZip(List<String> keys, OutputStream outputStream) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(outputStream);
+        zip.setLevel(Deflater.NO_COMPRESSION);
+        
+        FileDownloadReport report = objectFetchService.fetchAll(keys, (key, body) -> {
+            synchronized (zip) {
+                zip.putNextEntry(new ZipEntry(key.substring(key.lastIndexOf('/') + 1)));
+                body.transferTo(zip);
+                zip.closeEntry();
+            }
+        });
         
-        return outputStream.toByteArray();
+        if (report.getFailed() > 0) {
+            StringBuilder missing = new StringBuilder();
+            for (FileDownloadResult result : report.getResults()) {
+                if (!result.isSuccess()) {
+                    missing.append(result.getKey())
+                            .append('\t').append(result.getAttempts())
+                            .append('\t').append(result.getError())
+                            .append('\n');
+                }
+            }
+            zip.putNextEntry(new ZipEntry("MISSING_FILES.txt"));
+            zip.write(missing.toString().getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+        
+        zip.finish();
+        return report;
     }
     
+    /**
+     * Lists every original in the order folder. The storage list API returns
+     * at most {@code list-page-size} entries per call, so pages are requested
+     * until one comes back short.
+     */
     public List<Map<String, String>> listFiles(String orderId) {
-        String folder = "original/" + orderId;
+        String folder = ThumbnailService.ORIGINAL_PREFIX + orderId;
         List<Map<String, String>> files = new ArrayList<>();
         
         try {
@@ -117,26 +218,38 @@ public class FileService {
             headers.setContentType(MediaType.APPLICATION_JSON);
             headers.set("Authorization", "Bearer " + supabaseKey);
             
-            Map<String, Object> body = new HashMap<>();
-            body.put("limit", 100);
-            body.put("offset", 0);
-            
-            HttpEntity<Map<String, Object>> requestEntity = new HttpEntity<>(body, headers);
-            
-            @SuppressWarnings("unchecked")
-            List<Map<String, Object>> response = restTemplate.postForObject(listUrl, requestEntity, List.class);
-            
-            if (response != null) {
+            int offset = 0;
+            List<Map<String, Object>> response;
+            do {
+                Map<String, Object> body = new HashMap<>();
+                body.put("limit", listPageSize);
+                body.put("offset", offset);
+                
+                HttpEntity<Map<String, Object>> requestEntity = new HttpEntity<>(body, headers);
+                
+                @SuppressWarnings("unchecked")
+                List<Map<String, Object>> page = storageRestTemplate.postForObject(listUrl, requestEntity, List.class);
+                response = page != null ? page : List.of();
+                offset += response.size();
+                
+                List<String> keys = response.stream()
+                        .map(item -> folder + "/" + item.get("name"))
+                        .toList();
+                Set<String> ready = thumbnailService.findReady(keys);
+                
                 for (Map<String, Object> item : response) {
+                    String key = folder + "/" + item.get("name");
                     Map<String, String> fileInfo = new HashMap<>();
                     fileInfo.put("name", (String) item.get("name"));
-                    fileInfo.put("key", folder + "/" + item.get("name"));
-                    fileInfo.put("url", getPublicUrl(folder + "/" + item.get("name")));
+                    fileInfo.put("key", key);
+                    fileInfo.put("url", getPublicUrl(key));
+                    fileInfo.put("thumbnailUrl", getPublicUrl(
+                            ready.contains(key) ? ThumbnailService.toThumbnailKey(key) : key));
                     files.add(fileInfo);
                 }
-            }
+            } while (response.size() == listPageSize);
         } catch (Exception e) {
-            log.warn("Failed to list files for {}: {}", folder, e.getMessage());
+            log.warn("Failed to list files for {} after {} entries: {}", folder, files.size(), e.getMessage());
         }
         
         return files;
@@ -156,7 +269,7 @@ public class FileService {
             HttpEntity<?> requestEntity = new HttpEntity<>(headers);
             
             @SuppressWarnings("unchecked")
-            Map<String, Object> response = restTemplate.exchange(
+            Map<String, Object> response = storageRestTemplate.exchange(
                 statsUrl, HttpMethod.GET, requestEntity, Map.class).getBody();
             
             if (response != null && response.containsKey("files_count")) {
@@ -0,0 +1,230 @@
+package com.polaroid.service;
+
+import com.polaroid.dto.response.FileDownloadReport;
+import com.polaroid.dto.response.FileDownloadResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Service
+@Slf4j
+public class ObjectFetchService {
+    
+    private final RestTemplate storageRestTemplate;
+    private final ThreadPoolTaskExecutor storageDownloadExecutor;
+    private final int perRequestConcurrency;
+    private final Semaphore fetchPermits;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    
+    @Value("${supabase.url:https://placeholder.supabase.co}")
+    private String supabaseUrl;
+    
+    @Value("${supabase.key:placeholder-key}")
+    private String supabaseKey;
+    
+    @Value("${supabase.storage-bucket:polaroid-glossy}")
+    private String bucketName;
+    
+    public ObjectFetchService(
+            RestTemplate storageRestTemplate,
+            ThreadPoolTaskExecutor storageDownloadExecutor,
+            @Value("${storage.download.per-request-concurrency:4}") int perRequestConcurrency,
+            @Value("${storage.download.max-concurrent:32}") int maxConcurrent,
+            @Value("${storage.download.max-attempts:3}") int maxAttempts,
+            @Value("${storage.download.retry-backoff:200ms}") Duration retryBackoff) {
+        this.storageRestTemplate = storageRestTemplate;
+        this.storageDownloadExecutor = storageDownloadExecutor;
+        this.perRequestConcurrency = perRequestConcurrency;
+        this.fetchPermits = new Semaphore(Math.max(1, maxConcurrent));
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoff = retryBackoff;
+    }
+    
+    /**
+     * Fetches the keys with up to {@code per-request-concurrency} workers. Each
+     * object transfer also holds one of {@code max-concurrent} permits shared by
+     * every request, so concurrent downloads queue for a permit instead of
+     * multiplying open connections to storage.
+     */
+    public FileDownloadReport fetchAll(List<String> keys, ObjectConsumer consumer) throws IOException {
+        long startedAt = System.currentTimeMillis();
+        Queue<String> pending = new ConcurrentLinkedQueue<>(keys);
+        Map<String, FileDownloadResult> results = new ConcurrentHashMap<>();
+        AtomicReference<IOException> consumerFailure = new AtomicReference<>();
+        List<Future<?>> workers = new ArrayList<>();
+        
+        int workerCount = Math.max(1, Math.min(perRequestConcurrency, keys.size()));
+        for (int i = 0; i < workerCount; i++) {
+            workers.add(storageDownloadExecutor.submit(() -> {
+                String key;
+                while (consumerFailure.get() == null && (key = pending.poll()) != null) {
+                    try {
+                        fetchPermits.acquire();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        consumerFailure.compareAndSet(null, new InterruptedIOException("Download interrupted"));
+                        return;
+                    }
+                    try {
+                        results.put(key, fetchWithRetry(key, consumer, consumerFailure));
+                    } finally {
+                        fetchPermits.release();
+                    }
+                }
+            }));
+        }
+        
+        try {
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (InterruptedException e) {
+            workers.forEach(worker -> worker.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Download interrupted");
+        } catch (ExecutionException e) {
+            throw new IOException("Download failed: " + e.getCause().getMessage(), e.getCause());
+        }
+        
+        if (consumerFailure.get() != null) {
+            throw consumerFailure.get();
+        }
+        
+        List<FileDownloadResult> ordered = keys.stream()
+                .map(results::get)
+                .filter(Objects::nonNull)
+                .toList();
+        int succeeded = (int) ordered.stream().filter(FileDownloadResult::isSuccess).count();
+        
+        return FileDownloadReport.builder()
+                .total(keys.size())
+                .succeeded(succeeded)
+                .failed(ordered.size() - succeeded)
+                .elapsedMs(System.currentTimeMillis() - startedAt)
+                .results(ordered)
+                .build();
+    }
+    
+    /**
+     * Downloads one object into a local spool file, retrying transient failures
+     * including a connection dropped halfway through the body, and only then
+     * hands the complete copy to the consumer. Transfers therefore overlap
+     * fully; only the local write into the consumer is serialized by callers
+     * such as the ZIP writer.
+     */
+    private FileDownloadResult fetchWithRetry(String key, ObjectConsumer consumer,
+            AtomicReference<IOException> consumerFailure) {
+        String downloadUrl = String.format("%s/storage/v1/object/%s/%s", supabaseUrl, bucketName, key);
+        String lastError = null;
+        int attempt = 0;
+        Path spool = null;
+        
+        try {
+            spool = Files.createTempFile("object-fetch-", ".part");
+            Path target = spool;
+            
+            while (attempt < maxAttempts && consumerFailure.get() == null) {
+                attempt++;
+                try {
+                    storageRestTemplate.execute(downloadUrl, HttpMethod.GET,
+                            request -> request.getHeaders().set("Authorization", "Bearer " + supabaseKey),
+                            response -> {
+                                try (OutputStream out = Files.newOutputStream(target)) {
+                                    response.getBody().transferTo(out);
+                                }
+                                return null;
+                            });
+                } catch (Exception e) {
+                    lastError = e.getMessage();
+                    if (!isRetryable(e) || attempt >= maxAttempts || !backoff(attempt)) {
+                        break;
+                    }
+                    continue;
+                }
+                
+                try (InputStream body = Files.newInputStream(spool)) {
+                    consumer.accept(key, body);
+                } catch (IOException e) {
+                    consumerFailure.compareAndSet(null, e);
+                    return result(key, false, attempt, e.getMessage());
+                }
+                return result(key, true, attempt, null);
+            }
+        } catch (IOException e) {
+            consumerFailure.compareAndSet(null, e);
+            return result(key, false, attempt, e.getMessage());
+        } finally {
+            deleteSpool(spool);
+        }
+        
+        log.warn("Failed to download file {} after {} attempt(s): {}", key, attempt, lastError);
+        return result(key, false, attempt, lastError);
+    }
+    
+    private void deleteSpool(Path spool) {
+        if (spool == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(spool);
+        } catch (IOException e) {
+            log.warn("Failed to delete spool file {}: {}", spool, e.getMessage());
+        }
+    }
+    
+    private boolean isRetryable(Exception e) {
+        return e instanceof ResourceAccessException
+                || e instanceof HttpServerErrorException
+                || e instanceof HttpClientErrorException.TooManyRequests;
+    }
+    
+    private boolean backoff(int attempt) {
+        try {
+            Thread.sleep(retryBackoff.toMillis() * attempt);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+    
+    private FileDownloadResult result(String key, boolean success, int attempts, String error) {
+        return FileDownloadResult.builder()
+                .key(key)
+                .success(success)
+                .attempts(attempts)
+                .error(error)
+                .build();
+    }
+    
+    @FunctionalInterface
+    public interface ObjectConsumer {
+        void accept(String key, InputStream body) throws IOException;
+    }
+}
@@ -0,0 +1,251 @@
+package com.polaroid.service;
+
+import com.polaroid.event.OrderChangedEvent;
+import com.polaroid.model.enums.OrderStatus;
+import com.polaroid.model.enums.PaymentStatus;
+import com.polaroid.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderCounterStore {
+    
+    private static final BigDecimal CENTS = new BigDecimal("100");
+    
+    private final OrderRepository orderRepository;
+    
+    @Value("${stats.counters.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${stats.counters.revenue-days:31}")
+    private int revenueDays;
+    
+    private final Counters counters = new Counters();
+    
+    private volatile boolean ready;
+    
+    public boolean isReady() {
+        return enabled && ready;
+    }
+    
+    /**
+     * Applies an order change to the live counters. Events are applied even
+     * before the first reconcile so that no change slips between a reconcile's
+     * snapshot and its database read.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        if (event.isCreated()) {
+            counters.total.increment();
+            counters.stateCounter(event.getCustomerState()).increment();
+        }
+        
+        if (event.getOldStatus() != event.getNewStatus()) {
+            if (event.getOldStatus() != null) {
+                counters.byStatus.get(event.getOldStatus()).decrement();
+            }
+            if (event.getNewStatus() != null) {
+                counters.byStatus.get(event.getNewStatus()).increment();
+            }
+        }
+        
+        if (event.getOldPaymentStatus() != event.getNewPaymentStatus()) {
+            if (event.getOldPaymentStatus() != null) {
+                counters.byPaymentStatus.get(event.getOldPaymentStatus()).decrement();
+            }
+            if (event.getNewPaymentStatus() != null) {
+                counters.byPaymentStatus.get(event.getNewPaymentStatus()).increment();
+            }
+            
+            boolean wasPaid = event.getOldPaymentStatus() == PaymentStatus.PAID;
+            boolean isPaid = event.getNewPaymentStatus() == PaymentStatus.PAID;
+            if (wasPaid != isPaid && event.getTotal() != null) {
+                LocalDate day = event.getCreatedAt() != null ? event.getCreatedAt().toLocalDate() : LocalDate.now();
+                long cents = toCents(event.getTotal());
+                counters.revenueCounter(day).add(isPaid ? cents : -cents);
+            }
+        }
+    }
+    
+    /**
+     * Corrects the live counters against the database. The counters are never
+     * swapped out: the difference between the database totals and a snapshot
+     * taken just before reading them is added in place, so events applied
+     * while the queries run are kept.
+     */
+    @Scheduled(fixedDelayString = "${stats.counters.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        if (!enabled) {
+            return;
+        }
+        
+        try {
+            Counters snapshot = counters.copy();
+            Counters fresh = new Counters();
+            for (Object[] row : orderRepository.countByStatusPaymentAndState()) {
+                long count = ((Number) row[3]).longValue();
+                fresh.total.add(count);
+                if (row[0] != null) {
+                    fresh.byStatus.get((OrderStatus) row[0]).add(count);
+                }
+                if (row[1] != null) {
+                    fresh.byPaymentStatus.get((PaymentStatus) row[1]).add(count);
+                }
+                fresh.stateCounter((String) row[2]).add(count);
+            }
+            
+            LocalDateTime from = LocalDate.now().minusDays(revenueDays).atStartOfDay();
+            for (Object[] row : orderRepository.sumPaidRevenueByDay(from)) {
+                if (row[0] != null && row[1] != null) {
+                    fresh.revenueCounter(toLocalDate(row[0])).add(toCents((BigDecimal) row[1]));
+                }
+            }
+            
+            counters.correct(snapshot, fresh, from.toLocalDate());
+            ready = true;
+        } catch (DataAccessException e) {
+            log.warn("Failed to reconcile order counters: {}", e.getMessage());
+        }
+    }
+    
+    public long getTotalOrders() {
+        return counters.total.sum();
+    }
+    
+    public long countByStatus(OrderStatus status) {
+        return counters.byStatus.get(status).sum();
+    }
+    
+    public long countByPaymentStatus(PaymentStatus paymentStatus) {
+        return counters.byPaymentStatus.get(paymentStatus).sum();
+    }
+    
+    public BigDecimal sumPaidRevenueSince(LocalDate from) {
+        long cents = 0;
+        for (Map.Entry<LocalDate, LongAdder> entry : counters.paidRevenueByDay.entrySet()) {
+            if (!entry.getKey().isBefore(from)) {
+                cents += entry.getValue().sum();
+            }
+        }
+        return BigDecimal.valueOf(cents, 2);
+    }
+    
+    public Map<String, Long> getStatusCounts() {
+        Map<String, Long> statusCounts = new HashMap<>();
+        counters.byStatus.forEach((status, count) -> {
+            long value = count.sum();
+            if (value > 0) {
+                statusCounts.put(status.name(), value);
+            }
+        });
+        return statusCounts;
+    }
+    
+    public List<Object[]> getStatusCountRows() {
+        return getStatusCounts().entrySet().stream()
+                .map(entry -> new Object[]{entry.getKey(), entry.getValue()})
+                .toList();
+    }
+    
+    public List<Object[]> getStateCountRows() {
+        return counters.byState.entrySet().stream()
+                .filter(entry -> entry.getValue().sum() > 0)
+                .map(entry -> new Object[]{entry.getKey(), entry.getValue().sum()})
+                .toList();
+    }
+    
+    private long toCents(BigDecimal amount) {
+        return amount.multiply(CENTS).longValue();
+    }
+    
+    private LocalDate toLocalDate(Object value) {
+        if (value instanceof LocalDate localDate) {
+            return localDate;
+        }
+        if (value instanceof java.sql.Date sqlDate) {
+            return sqlDate.toLocalDate();
+        }
+        if (value instanceof LocalDateTime localDateTime) {
+            return localDateTime.toLocalDate();
+        }
+        return LocalDate.parse(value.toString().substring(0, 10));
+    }
+    
+    private static class Counters {
+        private final LongAdder total = new LongAdder();
+        private final Map<OrderStatus, LongAdder> byStatus = new EnumMap<>(OrderStatus.class);
+        private final Map<PaymentStatus, LongAdder> byPaymentStatus = new EnumMap<>(PaymentStatus.class);
+        private final Map<String, LongAdder> byState = new ConcurrentHashMap<>();
+        private final Map<LocalDate, LongAdder> paidRevenueByDay = new ConcurrentHashMap<>();
+        
+        private Counters() {
+            for (OrderStatus status : OrderStatus.values()) {
+                byStatus.put(status, new LongAdder());
+            }
+            for (PaymentStatus paymentStatus : PaymentStatus.values()) {
+                byPaymentStatus.put(paymentStatus, new LongAdder());
+            }
+        }
+        
+        private LongAdder stateCounter(String state) {
+            return byState.computeIfAbsent(state != null ? state : "", key -> new LongAdder());
+        }
+        
+        private LongAdder revenueCounter(LocalDate day) {
+            return paidRevenueByDay.computeIfAbsent(day, key -> new LongAdder());
+        }
+        
+        private Counters copy() {
+            Counters copy = new Counters();
+            copy.total.add(total.sum());
+            byStatus.forEach((status, count) -> copy.byStatus.get(status).add(count.sum()));
+            byPaymentStatus.forEach((paymentStatus, count) -> copy.byPaymentStatus.get(paymentStatus).add(count.sum()));
+            byState.forEach((state, count) -> copy.stateCounter(state).add(count.sum()));
+            paidRevenueByDay.forEach((day, cents) -> copy.revenueCounter(day).add(cents.sum()));
+            return copy;
+        }
+        
+        private void correct(Counters snapshot, Counters fresh, LocalDate revenueFrom) {
+            total.add(fresh.total.sum() - snapshot.total.sum());
+            for (OrderStatus status : OrderStatus.values()) {
+                byStatus.get(status).add(fresh.byStatus.get(status).sum() - snapshot.byStatus.get(status).sum());
+            }
+            for (PaymentStatus paymentStatus : PaymentStatus.values()) {
+                byPaymentStatus.get(paymentStatus).add(
+                        fresh.byPaymentStatus.get(paymentStatus).sum() - snapshot.byPaymentStatus.get(paymentStatus).sum());
+            }
+            correct(byState, snapshot.byState, fresh.byState);
+            correct(paidRevenueByDay, snapshot.paidRevenueByDay, fresh.paidRevenueByDay);
+            paidRevenueByDay.keySet().removeIf(day -> day.isBefore(revenueFrom));
+        }
+        
+        private static <K> void correct(Map<K, LongAdder> live, Map<K, LongAdder> snapshot, Map<K, LongAdder> fresh) {
+            Set<K> keys = new HashSet<>(snapshot.keySet());
+            keys.addAll(fresh.keySet());
+            for (K key : keys) {
+                long expected = fresh.containsKey(key) ? fresh.get(key).sum() : 0;
+                long seen = snapshot.containsKey(key) ? snapshot.get(key).sum() : 0;
+                live.computeIfAbsent(key, k -> new LongAdder()).add(expected - seen);
+            }
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.polaroid.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.polaroid.exception.TooManyRequestsException;
+import com.polaroid.model.Order;
+import com.polaroid.model.enums.OrderStatus;
+import com.polaroid.model.enums.PaymentStatus;
+import com.polaroid.repository.OrderExportRepository;
+import com.polaroid.repository.OrderSpecifications;
+import jakarta.persistence.Tuple;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Streams filtered orders as CSV or NDJSON. Rows go from the database cursor
+ * to a temporary file and from there to the response, so heap use is flat
+ * whatever the date range and a pooled connection is held only while the
+ * query runs. Reads are capped at max-concurrent, and further requests are
+ * turned away with 429.
+ */
+@Service
+@Slf4j
+public class OrderExportService {
+    
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+        
+        private final String contentType;
+        private final String extension;
+        
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+        
+        public String getContentType() {
+            return contentType;
+        }
+        
+        public String getExtension() {
+            return extension;
+        }
+    }
+    
+    private final OrderExportRepository orderExportRepository;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+    private final Semaphore exportPermits;
+    
+    public OrderExportService(
+            OrderExportRepository orderExportRepository,
+            ObjectMapper objectMapper,
+            @Value("${order-export.fetch-size:500}") int fetchSize,
+            @Value("${order-export.max-concurrent:2}") int maxConcurrent) {
+        this.orderExportRepository = orderExportRepository;
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+        this.exportPermits = new Semaphore(maxConcurrent);
+    }
+    
+    /**
+     * Reserves an export slot up front, so a rejection is still a plain 429
+     * rather than a failure after the response has started. The slot is given
+     * back once the rows are spooled, or when async processing ends if the
+     * body never ran; see {@link Export}.
+     */
+    public Export export(
+            OrderStatus status,
+            PaymentStatus paymentStatus,
+            String customerState,
+            LocalDateTime fromDate,
+            LocalDateTime toDate,
+            String search,
+            Format format) {
+        if (!exportPermits.tryAcquire()) {
+            throw new TooManyRequestsException("Too many exports in progress, please try again shortly");
+        }
+        return new Export(OrderSpecifications.withFiltersAndSearch(
+                null, status, paymentStatus, customerState, fromDate, toDate, search), format);
+    }
+    
+    /**
+     * One export's response body. Rows are read from the cursor into a
+     * temporary file and the slot and connection are released before the file
+     * is copied to the client, so a slow download holds neither. Registered
+     * as an async interceptor it also releases the slot when the request
+     * completes, times out or fails before the body ran, and a body that
+     * starts after that does nothing.
+     */
+    public final class Export implements StreamingResponseBody, CallableProcessingInterceptor {
+        
+        private final Specification<Order> spec;
+        private final Format format;
+        private final AtomicBoolean holdingPermit = new AtomicBoolean(true);
+        
+        private Export(Specification<Order> spec, Format format) {
+            this.spec = spec;
+            this.format = format;
+        }
+        
+        @Override
+        public void writeTo(OutputStream outputStream) throws IOException {
+            if (!holdingPermit.get()) {
+                return;
+            }
+            Path spool;
+            try {
+                spool = spool();
+            } finally {
+                release();
+            }
+            try {
+                Files.copy(spool, outputStream);
+                outputStream.flush();
+            } finally {
+                Files.deleteIfExists(spool);
+            }
+        }
+        
+        @Override
+        public <T> void afterCompletion(NativeWebRequest request, Callable<T> task) {
+            release();
+        }
+        
+        public void release() {
+            if (holdingPermit.compareAndSet(true, false)) {
+                exportPermits.release();
+            }
+        }
+        
+        private Path spool() throws IOException {
+            long start = System.nanoTime();
+            Path spool = Files.createTempFile("order-export-", "." + format.getExtension());
+            try (Writer writer = Files.newBufferedWriter(spool, StandardCharsets.UTF_8)) {
+                if (format == Format.CSV) {
+                    writer.write(String.join(",", OrderExportRepository.COLUMNS));
+                    writer.write('\n');
+                }
+                long rows = orderExportRepository.export(spec, fetchSize, row -> {
+                    if (format == Format.CSV) {
+                        writeCsv(writer, row);
+                    } else {
+                        writeJson(writer, row);
+                    }
+                });
+                log.info("Exported {} orders as {} in {} ms",
+                        rows, format, (System.nanoTime() - start) / 1_000_000);
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(spool);
+                throw e;
+            }
+            return spool;
+        }
+    }
+    
+    private void writeCsv(Writer writer, Tuple row) throws IOException {
+        for (int i = 0; i < OrderExportRepository.COLUMNS.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(CsvFormat.escape(format(row.get(i))));
+        }
+        writer.write('\n');
+    }
+    
+    private void writeJson(Writer writer, Tuple row) throws IOException {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (int i = 0; i < OrderExportRepository.COLUMNS.size(); i++) {
+            values.put(OrderExportRepository.COLUMNS.get(i), row.get(i));
+        }
+        writer.write(objectMapper.writeValueAsString(values));
+        writer.write('\n');
+    }
+    
+    private static String format(Object value) {
+        if (value == null) {
+            return "";
+        }
+        if (value instanceof BigDecimal decimal) {
+            return decimal.toPlainString();
+        }
+        return value.toString();
+    }
+}
@@ -1,40 +1,63 @@
 package com.polaroid.service;
 
+import com.polaroid.dto.projection.OrderSummary;
 import com.polaroid.dto.request.OrderRequest;
+import com.polaroid.dto.response.CursorPage;
 import com.polaroid.dto.response.OrderResponse;
+import com.polaroid.dto.response.OrderStatusBulkReport;
+import com.polaroid.dto.response.OrderStatusBulkResult;
+import com.polaroid.dto.response.PrintSizeResponse;
+import com.polaroid.event.OrderChangedEvent;
 import com.polaroid.exception.BadRequestException;
 import com.polaroid.exception.ResourceNotFoundException;
 import com.polaroid.model.*;
 import com.polaroid.model.enums.OrderStatus;
 import com.polaroid.model.enums.PaymentStatus;
 import com.polaroid.repository.OrderRepository;
+import com.polaroid.repository.OrderSpecifications;
 import com.polaroid.repository.OrderItemRepository;
 import com.polaroid.repository.OrderStatusHistoryRepository;
-import com.polaroid.repository.PrintSizeRepository;
 import com.polaroid.repository.UserRepository;
 import com.polaroid.dto.mapper.OrderMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class OrderService {
     
+    private static final int MAX_SCROLL_SIZE = 100;
+    private static final Sort KEYSET_SORT = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+    
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
     private final OrderStatusHistoryRepository statusHistoryRepository;
-    private final PrintSizeRepository printSizeRepository;
+    private final PrintSizeCatalog printSizeCatalog;
     private final UserRepository userRepository;
     private final OrderMapper orderMapper;
+    private final ApplicationEventPublisher eventPublisher;
     
     @Transactional
     public OrderResponse createOrder(OrderRequest request, String userEmail) {
@@ -48,12 +71,13 @@ public class OrderService {
             affiliate = userRepository.findByAffiliateCode(request.getAffiliateCode()).orElse(null);
         }
         
+        Map<String, PrintSizeResponse> printSizes = resolvePrintSizes(request.getItems());
+        
         BigDecimal subtotal = BigDecimal.ZERO;
-        List<OrderItem> orderItems = new ArrayList<>();
+        List<OrderItem> orderItems = new ArrayList<>(request.getItems().size());
         
         for (OrderRequest.OrderItemRequest itemReq : request.getItems()) {
-            PrintSize printSize = printSizeRepository.findById(itemReq.getSizeId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Print size not found: " + itemReq.getSizeId()));
+            PrintSizeResponse printSize = printSizes.get(itemReq.getSizeId());
             
             BigDecimal itemTotal = printSize.getPrice().multiply(BigDecimal.valueOf(itemReq.getQuantity()));
             subtotal = subtotal.add(itemTotal);
@@ -88,41 +112,78 @@ public class OrderService {
                 .build();
         
         orderItems.forEach(item -> item.setOrder(order));
+        order.getStatusHistory().add(OrderStatusHistory.builder()
+                .order(order)
+                .status(OrderStatus.PENDING)
+                .message("Order created")
+                .build());
         
+        // Items and the initial history row cascade from the order, so they are
+        // flushed together as ordered JDBC batches instead of one save per row.
         Order savedOrder = orderRepository.save(order);
         
-        addStatusHistory(savedOrder, OrderStatus.PENDING, "Order created");
+        eventPublisher.publishEvent(OrderChangedEvent.builder()
+                .created(true)
+                .customerState(savedOrder.getCustomerState())
+                .total(savedOrder.getTotal())
+                .createdAt(savedOrder.getCreatedAt())
+                .newStatus(savedOrder.getStatus())
+                .newPaymentStatus(savedOrder.getPaymentStatus())
+                .build());
         
         return orderMapper.toDto(savedOrder);
     }
     
     public OrderResponse getOrderByNumber(String orderNumber) {
-        Order order = orderRepository.findByOrderNumber(orderNumber)
+        Order order = orderRepository.findWithItemsByOrderNumber(orderNumber)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
         return orderMapper.toDto(order);
     }
     
+    @Transactional(readOnly = true)
     public Page<OrderResponse> getUserOrders(String userEmail, Pageable pageable) {
         User user = userRepository.findByEmail(userEmail)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-        return orderRepository.findByUserId(user.getId(), pageable)
-                .map(orderMapper::toDto);
+        // Items and status history are batch-fetched for the whole page, so
+        // the full responses cost a fixed number of queries per page.
+        Page<Order> orders = orderRepository.findByUserId(user.getId(), pageable);
+        return new PageImpl<>(orderMapper.toDtos(orders.getContent()), pageable, orders.getTotalElements());
     }
     
-    public Page<OrderResponse> getOrdersWithFilters(
+    public Page<OrderSummary> getOrdersWithFilters(
             OrderStatus status,
             PaymentStatus paymentStatus,
             String customerState,
             LocalDateTime fromDate,
             LocalDateTime toDate,
+            String search,
             Pageable pageable) {
-        return orderRepository.findWithFilters(status, paymentStatus, customerState, fromDate, toDate, pageable)
-                .map(orderMapper::toDto);
+        Specification<Order> spec = OrderSpecifications.withFiltersAndSearch(
+                null, status, paymentStatus, customerState, fromDate, toDate, search);
+        return orderRepository.findBy(spec, query -> query.as(OrderSummary.class).page(pageable));
+    }
+    
+    public CursorPage<OrderSummary> scrollUserOrders(String userEmail, String cursor, int size) {
+        User user = userRepository.findByEmail(userEmail)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        return scroll(user.getId(), null, null, null, null, null, null, cursor, size);
+    }
+    
+    public CursorPage<OrderSummary> scrollOrdersWithFilters(
+            OrderStatus status,
+            PaymentStatus paymentStatus,
+            String customerState,
+            LocalDateTime fromDate,
+            LocalDateTime toDate,
+            String search,
+            String cursor,
+            int size) {
+        return scroll(null, status, paymentStatus, customerState, fromDate, toDate, search, cursor, size);
     }
     
     @Transactional
     public OrderResponse updateOrderStatus(UUID orderId, OrderStatus newStatus, String message, String userEmail) {
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findWithItemsById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
         
         OrderStatus oldStatus = order.getStatus();
@@ -148,12 +209,102 @@ public class OrderService {
         }
         
         order = orderRepository.save(order);
+        
+        eventPublisher.publishEvent(OrderChangedEvent.builder()
+                .customerState(order.getCustomerState())
+                .total(order.getTotal())
+                .createdAt(order.getCreatedAt())
+                .oldStatus(oldStatus)
+                .newStatus(newStatus)
+                .oldPaymentStatus(order.getPaymentStatus())
+                .newPaymentStatus(order.getPaymentStatus())
+                .build());
+        
         return orderMapper.toDto(order);
     }
     
+    /**
+     * Moves many orders to one status with a locking read, one bulk UPDATE and a
+     * batched history insert, instead of a load/save/map round trip per order.
+     * Applies the same rules as {@link #updateOrderStatus}; orders already in
+     * the target status are reported as unchanged.
+     */
+    @Transactional
+    public OrderStatusBulkReport updateOrderStatuses(
+            Collection<UUID> orderIds, OrderStatus newStatus, String message, String userEmail) {
+        long start = System.nanoTime();
+        Set<UUID> requested = new LinkedHashSet<>(orderIds);
+        Map<UUID, Order> orders = orderRepository.findAllForUpdateByIdIn(requested).stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity()));
+        
+        List<OrderStatusBulkResult> results = new ArrayList<>(requested.size());
+        List<Order> changed = new ArrayList<>();
+        for (UUID orderId : requested) {
+            Order order = orders.get(orderId);
+            if (order == null) {
+                results.add(bulkResult(orderId, null, null, "Order not found"));
+            } else if (order.getStatus() == newStatus) {
+                results.add(bulkResult(orderId, order, order.getStatus(), null));
+            } else {
+                results.add(bulkResult(orderId, order, order.getStatus(), null));
+                changed.add(order);
+            }
+        }
+        
+        if (!changed.isEmpty()) {
+            // Like the single-order path, moving to PROCESSING leaves no history entry
+            if (newStatus != OrderStatus.PROCESSING) {
+                String historyMessage = message != null ? message : defaultStatusMessage(newStatus);
+                statusHistoryRepository.saveAll(changed.stream()
+                        .map(order -> OrderStatusHistory.builder()
+                                .order(order)
+                                .status(newStatus)
+                                .message(historyMessage)
+                                .build())
+                        .toList());
+            }
+            
+            LocalDateTime now = LocalDateTime.now();
+            boolean cancelled = newStatus == OrderStatus.CANCELLED;
+            orderRepository.updateStatusIn(
+                    changed.stream().map(Order::getId).toList(),
+                    newStatus,
+                    newStatus == OrderStatus.POSTED ? now : null,
+                    newStatus == OrderStatus.DELIVERED ? now : null,
+                    cancelled ? now : null,
+                    cancelled,
+                    cancelled ? message : null,
+                    now,
+                    userEmail);
+            
+            for (Order order : changed) {
+                eventPublisher.publishEvent(OrderChangedEvent.builder()
+                        .customerState(order.getCustomerState())
+                        .total(order.getTotal())
+                        .createdAt(order.getCreatedAt())
+                        .oldStatus(order.getStatus())
+                        .newStatus(newStatus)
+                        .oldPaymentStatus(order.getPaymentStatus())
+                        .newPaymentStatus(order.getPaymentStatus())
+                        .build());
+            }
+        }
+        
+        int failed = (int) results.stream().filter(result -> !result.isSuccess()).count();
+        return OrderStatusBulkReport.builder()
+                .status(newStatus)
+                .total(results.size())
+                .updated(changed.size())
+                .unchanged(results.size() - changed.size() - failed)
+                .failed(failed)
+                .elapsedMs((System.nanoTime() - start) / 1_000_000)
+                .results(results)
+                .build();
+    }
+    
     @Transactional
     public OrderResponse updateTrackingNumber(UUID orderId, String trackingNumber) {
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findWithItemsById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
         
         order.setTrackingNumber(trackingNumber);
@@ -164,7 +315,7 @@ public class OrderService {
     
     @Transactional
     public OrderResponse addNotes(UUID orderId, String notes) {
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findWithItemsById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
         
         order.setNotes(notes);
@@ -178,6 +329,13 @@ public class OrderService {
         Order order = orderRepository.findByOrderNumber(orderNumber)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
         
+        PaymentStatus oldPaymentStatus = order.getPaymentStatus();
+        // Callbacks can arrive late or repeated: re-applying the current status is
+        // a no-op and a paid order is never moved back to pending or failed.
+        if (oldPaymentStatus == status || oldPaymentStatus == PaymentStatus.PAID) {
+            return;
+        }
+        
         order.setPaymentStatus(status);
         if (status == PaymentStatus.PAID) {
             order.setPaidAt(LocalDateTime.now());
@@ -185,6 +343,36 @@ public class OrderService {
         }
         
         orderRepository.save(order);
+        
+        eventPublisher.publishEvent(OrderChangedEvent.builder()
+                .customerState(order.getCustomerState())
+                .total(order.getTotal())
+                .createdAt(order.getCreatedAt())
+                .oldStatus(order.getStatus())
+                .newStatus(order.getStatus())
+                .oldPaymentStatus(oldPaymentStatus)
+                .newPaymentStatus(status)
+                .build());
+    }
+    
+    private OrderStatusBulkResult bulkResult(UUID orderId, Order order, OrderStatus previousStatus, String error) {
+        return OrderStatusBulkResult.builder()
+                .orderId(orderId)
+                .orderNumber(order != null ? order.getOrderNumber() : null)
+                .success(error == null)
+                .previousStatus(previousStatus)
+                .error(error)
+                .build();
+    }
+    
+    private static String defaultStatusMessage(OrderStatus status) {
+        return switch (status) {
+            case POSTED -> "Order posted";
+            case ON_DELIVERY -> "Out for delivery";
+            case DELIVERED -> "Order delivered";
+            case CANCELLED -> "Order cancelled";
+            default -> null;
+        };
     }
     
     private void addStatusHistory(Order order, OrderStatus status, String message) {
@@ -196,6 +384,83 @@ public class OrderService {
         statusHistoryRepository.save(history);
     }
     
+    /**
+     * Keyset pagination on (created_at DESC, id DESC): each page starts strictly
+     * after the last row of the previous one, so no rows are skipped with OFFSET
+     * and no total count is taken. One extra row is fetched to detect a next page.
+     */
+    private CursorPage<OrderSummary> scroll(
+            UUID userId,
+            OrderStatus status,
+            PaymentStatus paymentStatus,
+            String customerState,
+            LocalDateTime fromDate,
+            LocalDateTime toDate,
+            String search,
+            String cursor,
+            int size) {
+        int limit = Math.min(Math.max(size, 1), MAX_SCROLL_SIZE);
+        
+        OrderCursor after = cursor != null && !cursor.isEmpty() ? decodeCursor(cursor) : null;
+        
+        Specification<Order> spec = OrderSpecifications.withFiltersAndSearch(
+                userId, status, paymentStatus, customerState, fromDate, toDate, search);
+        if (after != null) {
+            spec = spec.and(OrderSpecifications.createdBefore(after.createdAt(), after.id()));
+        }
+        
+        List<OrderSummary> rows = orderRepository.findBy(spec, query -> query
+                .as(OrderSummary.class)
+                .sortBy(KEYSET_SORT)
+                .limit(limit + 1)
+                .all());
+        
+        boolean hasNext = rows.size() > limit;
+        List<OrderSummary> content = hasNext ? rows.subList(0, limit) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            OrderSummary last = content.get(content.size() - 1);
+            nextCursor = encodeCursor(last.getCreatedAt(), last.getId());
+        }
+        
+        return CursorPage.<OrderSummary>builder()
+                .content(content)
+                .size(content.size())
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .build();
+    }
+    
+    private String encodeCursor(LocalDateTime createdAt, UUID id) {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private OrderCursor decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 2);
+            if (parts.length != 2) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            return new OrderCursor(LocalDateTime.parse(parts[0]), UUID.fromString(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+    
+    private Map<String, PrintSizeResponse> resolvePrintSizes(List<OrderRequest.OrderItemRequest> items) {
+        Set<String> sizeIds = new LinkedHashSet<>();
+        items.forEach(item -> sizeIds.add(item.getSizeId()));
+        
+        Map<String, PrintSizeResponse> printSizes = printSizeCatalog.getAll(sizeIds);
+        if (printSizes.size() < sizeIds.size()) {
+            sizeIds.removeAll(printSizes.keySet());
+            throw new ResourceNotFoundException("Print size not found: " + String.join(", ", sizeIds));
+        }
+        return printSizes;
+    }
+    
     private String generateOrderNumber() {
         String timestamp = String.valueOf(System.currentTimeMillis()).substring(5);
         String random = UUID.randomUUID().toString().substring(0, 4).toUpperCase();
@@ -208,4 +473,7 @@ public class OrderService {
         }
         return "[\"" + String.join("\",\"", list) + "\"]";
     }
+    
+    private record OrderCursor(LocalDateTime createdAt, UUID id) {
+    }
 }
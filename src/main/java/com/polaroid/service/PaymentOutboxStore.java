@@ -0,0 +1,132 @@
+package com.polaroid.service;
+
+import com.polaroid.model.Order;
+import com.polaroid.model.PaymentRequest;
+import com.polaroid.model.enums.PaymentRequestStatus;
+import com.polaroid.repository.OrderRepository;
+import com.polaroid.repository.PaymentRequestRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Transactional state changes for payment_requests rows, kept apart from the
+ * worker so each step commits on its own and no transaction is held open
+ * across the ToyyibPay call.
+ */
+@Service
+public class PaymentOutboxStore {
+    
+    private final PaymentRequestRepository paymentRequestRepository;
+    private final OrderRepository orderRepository;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    
+    public PaymentOutboxStore(
+            PaymentRequestRepository paymentRequestRepository,
+            OrderRepository orderRepository,
+            @Value("${payment.outbox.max-attempts:5}") int maxAttempts,
+            @Value("${payment.outbox.retry-backoff:5s}") Duration retryBackoff) {
+        this.paymentRequestRepository = paymentRequestRepository;
+        this.orderRepository = orderRepository;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = retryBackoff;
+    }
+    
+    /**
+     * Moves a due PENDING request to PROCESSING and counts the attempt. Returns
+     * null when the request is not due, already finished, or being claimed by
+     * another node.
+     */
+    @Transactional
+    public PaymentRequest claim(UUID requestId) {
+        PaymentRequest request = paymentRequestRepository.findPendingForUpdate(requestId).orElse(null);
+        if (request == null || request.getNextAttemptAt().isAfter(LocalDateTime.now())) {
+            return null;
+        }
+        
+        request.setStatus(PaymentRequestStatus.PROCESSING);
+        request.setAttempts(request.getAttempts() + 1);
+        return paymentRequestRepository.save(request);
+    }
+    
+    @Transactional
+    public void complete(UUID requestId, String billCode) {
+        PaymentRequest request = paymentRequestRepository.findById(requestId).orElse(null);
+        if (request == null) {
+            return;
+        }
+        
+        request.setStatus(PaymentRequestStatus.COMPLETED);
+        request.setBillCode(billCode);
+        request.setLastError(null);
+        paymentRequestRepository.save(request);
+        
+        orderRepository.findById(request.getOrderId()).ifPresent(order -> {
+            if (order.getToyyibpayRef() == null || order.getToyyibpayRef().isEmpty()) {
+                order.setToyyibpayRef(billCode);
+                orderRepository.save(order);
+            }
+        });
+    }
+    
+    /**
+     * Records a failed attempt: retried with exponential backoff until
+     * max-attempts, then marked FAILED.
+     */
+    @Transactional
+    public void fail(UUID requestId, String error) {
+        PaymentRequest request = paymentRequestRepository.findById(requestId).orElse(null);
+        if (request == null) {
+            return;
+        }
+        
+        request.setLastError(error);
+        if (request.getAttempts() >= maxAttempts) {
+            request.setStatus(PaymentRequestStatus.FAILED);
+        } else {
+            long delay = retryBackoff.toMillis() << Math.min(request.getAttempts() - 1, 10);
+            request.setStatus(PaymentRequestStatus.PENDING);
+            request.setNextAttemptAt(LocalDateTime.now().plus(Duration.ofMillis(delay)));
+        }
+        paymentRequestRepository.save(request);
+    }
+    
+    /**
+     * Returns a claimed request to PENDING without counting the attempt, used
+     * when the call was never made (circuit open).
+     */
+    @Transactional
+    public void defer(UUID requestId, long delayMillis) {
+        paymentRequestRepository.findById(requestId).ifPresent(request -> {
+            request.setStatus(PaymentRequestStatus.PENDING);
+            request.setAttempts(Math.max(request.getAttempts() - 1, 0));
+            request.setNextAttemptAt(LocalDateTime.now().plus(Duration.ofMillis(delayMillis)));
+            paymentRequestRepository.save(request);
+        });
+    }
+    
+    /**
+     * Requeues requests left in PROCESSING by a node that died mid-call.
+     */
+    @Transactional
+    public int resetStale(Duration staleAfter) {
+        LocalDateTime now = LocalDateTime.now();
+        return paymentRequestRepository.resetStale(
+                PaymentRequestStatus.PENDING, PaymentRequestStatus.PROCESSING, now.minus(staleAfter), now);
+    }
+    
+    public List<UUID> findDue(int limit) {
+        return paymentRequestRepository.findDueIds(LocalDateTime.now(), Limit.of(limit));
+    }
+    
+    public Order findOrder(UUID orderId) {
+        return orderRepository.findById(orderId).orElse(null);
+    }
+}
@@ -0,0 +1,100 @@
+package com.polaroid.service;
+
+import com.polaroid.event.PaymentRequestedEvent;
+import com.polaroid.model.Order;
+import com.polaroid.model.PaymentRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Drains payment_requests. New requests are submitted as soon as their
+ * creating transaction commits; anything missed (saturated pool, retries, node
+ * restarts) is picked up by the poller. The bounded paymentExecutor is the
+ * bulkhead: at most pool-size ToyyibPay calls run at once, and request threads
+ * never wait on the gateway.
+ */
+@Component
+@Slf4j
+public class PaymentOutboxWorker {
+    
+    private final PaymentOutboxStore outboxStore;
+    private final ToyyibPayClient toyyibPayClient;
+    private final ThreadPoolTaskExecutor paymentExecutor;
+    private final int batchSize;
+    private final Duration staleAfter;
+    
+    public PaymentOutboxWorker(
+            PaymentOutboxStore outboxStore,
+            ToyyibPayClient toyyibPayClient,
+            ThreadPoolTaskExecutor paymentExecutor,
+            @Value("${payment.outbox.batch-size:20}") int batchSize,
+            @Value("${payment.outbox.stale-after:2m}") Duration staleAfter) {
+        this.outboxStore = outboxStore;
+        this.toyyibPayClient = toyyibPayClient;
+        this.paymentExecutor = paymentExecutor;
+        this.batchSize = batchSize;
+        this.staleAfter = staleAfter;
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPaymentRequested(PaymentRequestedEvent event) {
+        submit(event.getRequestId());
+    }
+    
+    @Scheduled(fixedDelayString = "${payment.outbox.poll-interval-ms:5000}")
+    public void pollDue() {
+        try {
+            int reset = outboxStore.resetStale(staleAfter);
+            if (reset > 0) {
+                log.warn("Requeued {} stale payment requests", reset);
+            }
+            outboxStore.findDue(batchSize).forEach(this::submit);
+        } catch (DataAccessException e) {
+            log.warn("Failed to poll payment requests: {}", e.getMessage());
+        }
+    }
+    
+    private void submit(UUID requestId) {
+        try {
+            paymentExecutor.execute(() -> process(requestId));
+        } catch (TaskRejectedException e) {
+            log.debug("Payment executor saturated, request {} left for the next poll", requestId);
+        }
+    }
+    
+    private void process(UUID requestId) {
+        PaymentRequest request = outboxStore.claim(requestId);
+        if (request == null) {
+            return;
+        }
+        
+        Order order = outboxStore.findOrder(request.getOrderId());
+        if (order == null) {
+            outboxStore.fail(requestId, "Order not found");
+            return;
+        }
+        
+        if (!toyyibPayClient.tryAcquire()) {
+            outboxStore.defer(requestId, toyyibPayClient.getRetryAfterMillis());
+            return;
+        }
+        
+        try {
+            String billCode = toyyibPayClient.createBill(order);
+            outboxStore.complete(requestId, billCode);
+        } catch (RuntimeException e) {
+            log.warn("Payment request {} for order {} failed (attempt {}): {}",
+                    requestId, request.getOrderNumber(), request.getAttempts(), e.getMessage());
+            outboxStore.fail(requestId, e.getMessage());
+        }
+    }
+}
@@ -1,107 +1,104 @@
 package com.polaroid.service;
 
+import com.polaroid.event.PaymentRequestedEvent;
+import com.polaroid.exception.BadRequestException;
 import com.polaroid.exception.ResourceNotFoundException;
 import com.polaroid.model.Order;
+import com.polaroid.model.PaymentRequest;
+import com.polaroid.model.enums.PaymentRequestStatus;
+import com.polaroid.model.enums.PaymentStatus;
 import com.polaroid.repository.OrderRepository;
+import com.polaroid.repository.PaymentRequestRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import org.springframework.util.LinkedMultiValueMap;
-import org.springframework.util.MultiValueMap;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 public class PaymentService {
     
-    private final OrderRepository orderRepository;
-    private final RestTemplate restTemplate;
-    
-    @Value("${toyyibpay.secret-key}")
-    private String toyyibpaySecretKey;
-    
-    @Value("${toyyibpay.category-code}")
-    private String categoryCode;
+    public static final String STATUS_READY = "READY";
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_FAILED = "FAILED";
+    public static final String STATUS_NOT_STARTED = "NOT_STARTED";
     
-    @Value("${toyyibpay.return-url}")
-    private String returnUrl;
+    private static final List<PaymentRequestStatus> ACTIVE_STATUSES =
+            List.of(PaymentRequestStatus.PENDING, PaymentRequestStatus.PROCESSING);
     
-    @Value("${toyyibpay.callback-url}")
-    private String callbackUrl;
-    
-    private static final String TOYYIBPAY_API_URL = "https://toyyibpay.com/index.php/api/createBill";
+    private final OrderRepository orderRepository;
+    private final PaymentRequestRepository paymentRequestRepository;
+    private final ToyyibPayClient toyyibPayClient;
+    private final ApplicationEventPublisher eventPublisher;
     
+    /**
+     * Returns the existing bill when the order already has one, otherwise queues
+     * a bill-creation request (or reuses the one in flight) and returns PENDING.
+     * The ToyyibPay call itself happens on the payment outbox worker.
+     */
+    @Transactional
     public Map<String, String> createPayment(String orderNumber) {
-        Order order = orderRepository.findByOrderNumber(orderNumber)
+        Order order = orderRepository.findForUpdateByOrderNumber(orderNumber)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found: " + orderNumber));
         
-        MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
-        params.add("userSecretKey", toyyibpaySecretKey);
-        params.add("categoryCode", categoryCode);
-        params.add("billName", truncate(order.getOrderNumber(), 30));
-        params.add("billDescription", "Polaroid Glossy - " + order.getOrderNumber());
-        params.add("billPriceSetting", "1");
-        params.add("billPayorInfo", "1");
-        params.add("billAmount", String.valueOf(order.getTotal().multiply(new BigDecimal("100")).intValue()));
-        params.add("billReturnUrl", returnUrl + "?order_id=" + order.getOrderNumber());
-        params.add("billCallbackUrl", callbackUrl);
-        params.add("billExternalReferenceNo", order.getOrderNumber());
-        params.add("billTo", order.getCustomerName());
-        params.add("billEmail", order.getCustomerEmail());
-        params.add("billPhone", order.getCustomerPhone() != null ? order.getCustomerPhone() : "");
-        params.add("billPaymentChannel", "0");
-        params.add("billChargeToCustomer", "1");
-        
-        try {
-            String response = restTemplate.postForObject(TOYYIBPAY_API_URL, params, String.class);
-            
-            String billCode = extractBillCode(response);
-            
-            order.setToyyibpayRef(billCode);
-            orderRepository.save(order);
-            
-            Map<String, String> result = new HashMap<>();
-            result.put("billCode", billCode);
-            result.put("paymentUrl", "https://toyyibpay.com/" + billCode);
-            result.put("orderNumber", orderNumber);
-            
-            return result;
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to create payment: " + e.getMessage());
+        if (order.getPaymentStatus() == PaymentStatus.PAID) {
+            throw new BadRequestException("Order is already paid");
         }
-    }
-    
-    private String extractBillCode(String response) {
-        if (response == null || response.isEmpty()) {
-            throw new RuntimeException("Empty response from ToyyibPay");
+        if (order.getToyyibpayRef() != null && !order.getToyyibpayRef().isEmpty()) {
+            return toReadyResult(orderNumber, order.getToyyibpayRef());
         }
         
-        response = response.trim();
-        
-        if (response.startsWith("[")) {
-            response = response.substring(1);
-        }
-        if (response.endsWith("]")) {
-            response = response.substring(0, response.length() - 1);
+        PaymentRequest request = paymentRequestRepository
+                .findFirstByOrderIdAndStatusIn(order.getId(), ACTIVE_STATUSES)
+                .orElse(null);
+        if (request == null) {
+            request = paymentRequestRepository.save(PaymentRequest.builder()
+                    .orderId(order.getId())
+                    .orderNumber(orderNumber)
+                    .nextAttemptAt(LocalDateTime.now())
+                    .build());
+            eventPublisher.publishEvent(new PaymentRequestedEvent(request.getId()));
         }
         
-        if (response.contains("BillCode")) {
-            int start = response.indexOf("BillCode") + 10;
-            int end = response.indexOf("\"", start);
-            if (end > start) {
-                return response.substring(start, end);
-            }
+        return toResult(orderNumber, STATUS_PENDING, null);
+    }
+    
+    public Map<String, String> getPaymentStatus(String orderNumber) {
+        Order order = orderRepository.findByOrderNumber(orderNumber)
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found: " + orderNumber));
+        
+        if (order.getToyyibpayRef() != null && !order.getToyyibpayRef().isEmpty()) {
+            return toReadyResult(orderNumber, order.getToyyibpayRef());
         }
         
-        return response.replace("\"", "").trim();
+        return paymentRequestRepository.findFirstByOrderIdOrderByCreatedAtDesc(order.getId())
+                .map(request -> switch (request.getStatus()) {
+                    case COMPLETED -> toReadyResult(orderNumber, request.getBillCode());
+                    case FAILED -> toResult(orderNumber, STATUS_FAILED, request.getLastError());
+                    default -> toResult(orderNumber, STATUS_PENDING, null);
+                })
+                .orElseGet(() -> toResult(orderNumber, STATUS_NOT_STARTED, null));
+    }
+    
+    private Map<String, String> toReadyResult(String orderNumber, String billCode) {
+        Map<String, String> result = toResult(orderNumber, STATUS_READY, null);
+        result.put("billCode", billCode);
+        result.put("paymentUrl", toyyibPayClient.getPaymentUrl(billCode));
+        return result;
     }
     
-    private String truncate(String str, int maxLength) {
-        if (str == null) return "";
-        return str.length() > maxLength ? str.substring(0, maxLength) : str;
+    private Map<String, String> toResult(String orderNumber, String status, String error) {
+        Map<String, String> result = new HashMap<>();
+        result.put("orderNumber", orderNumber);
+        result.put("status", status);
+        if (error != null) {
+            result.put("error", error);
+        }
+        return result;
     }
 }
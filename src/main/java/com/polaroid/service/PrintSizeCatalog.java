@@ -0,0 +1,149 @@
+package com.polaroid.service;
+
+import com.polaroid.dto.mapper.PrintSizeMapper;
+import com.polaroid.dto.response.PrintSizeResponse;
+import com.polaroid.event.CatalogChangedEvent;
+import com.polaroid.model.CatalogVersion;
+import com.polaroid.repository.CatalogVersionRepository;
+import com.polaroid.repository.PrintSizeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PrintSizeCatalog {
+    
+    public static final String CATALOG_NAME = "print_sizes";
+    
+    private final PrintSizeRepository printSizeRepository;
+    private final CatalogVersionRepository catalogVersionRepository;
+    private final PrintSizeMapper printSizeMapper;
+    
+    private volatile Snapshot snapshot;
+    
+    public PrintSizeResponse get(String id) {
+        return copy(current().byId().get(id));
+    }
+    
+    /**
+     * Resolves every id against a single snapshot, so one order is never priced
+     * from two catalog versions. Unknown ids are left out of the result.
+     */
+    public Map<String, PrintSizeResponse> getAll(Collection<String> ids) {
+        Map<String, PrintSizeResponse> byId = current().byId();
+        Map<String, PrintSizeResponse> resolved = new HashMap<>();
+        for (String id : ids) {
+            PrintSizeResponse printSize = byId.get(id);
+            if (printSize != null) {
+                resolved.put(id, copy(printSize));
+            }
+        }
+        return resolved;
+    }
+    
+    public List<PrintSizeResponse> getAll() {
+        return copyAll(current().all());
+    }
+    
+    public List<PrintSizeResponse> getActive() {
+        return copyAll(current().active());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (CATALOG_NAME.equals(event.getName())) {
+            reload();
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${catalog.version-check-interval-ms:10000}")
+    public void checkVersion() {
+        Snapshot loaded = snapshot;
+        if (loaded == null) {
+            return;
+        }
+        
+        try {
+            if (currentVersion() != loaded.version()) {
+                reload();
+            }
+        } catch (DataAccessException e) {
+            log.warn("Failed to check print size catalog version: {}", e.getMessage());
+        }
+    }
+    
+    public synchronized void reload() {
+        long version = currentVersion();
+        List<PrintSizeResponse> all = printSizeRepository.findAll().stream()
+                .map(printSizeMapper::toDto)
+                .toList();
+        
+        Map<String, PrintSizeResponse> byId = new HashMap<>();
+        all.forEach(printSize -> byId.put(printSize.getId(), printSize));
+        
+        List<PrintSizeResponse> active = all.stream()
+                .filter(printSize -> Boolean.TRUE.equals(printSize.getIsActive()))
+                .toList();
+        
+        snapshot = new Snapshot(version, Map.copyOf(byId), all, active);
+        log.debug("Loaded print size catalog version {} ({} sizes)", version, all.size());
+    }
+    
+    private Snapshot current() {
+        Snapshot loaded = snapshot;
+        if (loaded == null) {
+            reload();
+            loaded = snapshot;
+        }
+        return loaded;
+    }
+    
+    /**
+     * Snapshot entries are shared by every request, so callers get their own
+     * copy; a caller that sets a field on the DTO cannot change the catalog.
+     */
+    private static PrintSizeResponse copy(PrintSizeResponse printSize) {
+        if (printSize == null) {
+            return null;
+        }
+        return PrintSizeResponse.builder()
+                .id(printSize.getId())
+                .name(printSize.getName())
+                .displayName(printSize.getDisplayName())
+                .width(printSize.getWidth())
+                .height(printSize.getHeight())
+                .price(printSize.getPrice())
+                .description(printSize.getDescription())
+                .isActive(printSize.getIsActive())
+                .build();
+    }
+    
+    private static List<PrintSizeResponse> copyAll(List<PrintSizeResponse> printSizes) {
+        return printSizes.stream()
+                .map(PrintSizeCatalog::copy)
+                .toList();
+    }
+    
+    private long currentVersion() {
+        return catalogVersionRepository.findById(CATALOG_NAME)
+                .map(CatalogVersion::getVersion)
+                .orElse(0L);
+    }
+    
+    private record Snapshot(
+            long version,
+            Map<String, PrintSizeResponse> byId,
+            List<PrintSizeResponse> all,
+            List<PrintSizeResponse> active) {
+    }
+}
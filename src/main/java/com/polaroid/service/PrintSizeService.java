@@ -3,16 +3,19 @@ package com.polaroid.service;
 import com.polaroid.dto.mapper.PrintSizeMapper;
 import com.polaroid.dto.request.PrintSizeRequest;
 import com.polaroid.dto.response.PrintSizeResponse;
+import com.polaroid.event.CatalogChangedEvent;
 import com.polaroid.exception.BadRequestException;
 import com.polaroid.exception.ResourceNotFoundException;
+import com.polaroid.model.CatalogVersion;
 import com.polaroid.model.PrintSize;
+import com.polaroid.repository.CatalogVersionRepository;
 import com.polaroid.repository.PrintSizeRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -20,23 +23,24 @@ public class PrintSizeService {
     
     private final PrintSizeRepository printSizeRepository;
     private final PrintSizeMapper printSizeMapper;
+    private final PrintSizeCatalog printSizeCatalog;
+    private final CatalogVersionRepository catalogVersionRepository;
+    private final ApplicationEventPublisher eventPublisher;
     
     public List<PrintSizeResponse> getAllPrintSizes() {
-        return printSizeRepository.findAll().stream()
-                .map(printSizeMapper::toDto)
-                .collect(Collectors.toList());
+        return printSizeCatalog.getAll();
     }
     
     public List<PrintSizeResponse> getActivePrintSizes() {
-        return printSizeRepository.findByIsActiveTrue().stream()
-                .map(printSizeMapper::toDto)
-                .collect(Collectors.toList());
+        return printSizeCatalog.getActive();
     }
     
     public PrintSizeResponse getPrintSizeById(String id) {
-        PrintSize printSize = printSizeRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Print size not found: " + id));
-        return printSizeMapper.toDto(printSize);
+        PrintSizeResponse printSize = printSizeCatalog.get(id);
+        if (printSize == null) {
+            throw new ResourceNotFoundException("Print size not found: " + id);
+        }
+        return printSize;
     }
     
     @Transactional
@@ -47,6 +51,7 @@ public class PrintSizeService {
         
         PrintSize printSize = printSizeMapper.toEntity(request);
         printSize = printSizeRepository.save(printSize);
+        catalogChanged();
         return printSizeMapper.toDto(printSize);
     }
     
@@ -66,6 +71,7 @@ public class PrintSizeService {
         }
         
         printSize = printSizeRepository.save(printSize);
+        catalogChanged();
         return printSizeMapper.toDto(printSize);
     }
     
@@ -75,5 +81,16 @@ public class PrintSizeService {
             throw new ResourceNotFoundException("Print size not found: " + id);
         }
         printSizeRepository.deleteById(id);
+        catalogChanged();
+    }
+    
+    private void catalogChanged() {
+        if (catalogVersionRepository.incrementVersion(PrintSizeCatalog.CATALOG_NAME) == 0) {
+            catalogVersionRepository.save(CatalogVersion.builder()
+                    .name(PrintSizeCatalog.CATALOG_NAME)
+                    .version(1L)
+                    .build());
+        }
+        eventPublisher.publishEvent(new CatalogChangedEvent(PrintSizeCatalog.CATALOG_NAME));
     }
 }
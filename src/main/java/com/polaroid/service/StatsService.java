@@ -1,14 +1,17 @@
 package com.polaroid.service;
 
+import com.polaroid.dto.projection.OrderOverviewCounts;
 import com.polaroid.dto.response.StatsOverviewResponse;
 import com.polaroid.model.enums.OrderStatus;
 import com.polaroid.model.enums.PaymentStatus;
+import com.polaroid.repository.AnalyticsViewRepository;
 import com.polaroid.repository.OrderRepository;
 import com.polaroid.repository.OrderItemRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
@@ -20,55 +23,118 @@ public class StatsService {
     
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
+    private final AnalyticsViewRepository analyticsViewRepository;
+    private final AnalyticsViewService analyticsViewService;
+    private final OrderCounterStore orderCounterStore;
     
     public StatsOverviewResponse getOverview() {
-        long totalOrders = orderRepository.count();
-        long pendingOrders = orderRepository.countByStatus(OrderStatus.PENDING);
-        long processingOrders = orderRepository.countByStatus(OrderStatus.PROCESSING);
-        long deliveredOrders = orderRepository.countByStatus(OrderStatus.DELIVERED);
-        long cancelledOrders = orderRepository.countByStatus(OrderStatus.CANCELLED);
+        if (orderCounterStore.isReady()) {
+            return getOverviewFromCounters();
+        }
+        if (analyticsViewService.isAvailable()) {
+            return getOverviewFromViews();
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        OrderOverviewCounts counts = orderRepository.getOverviewCounts(now.minusDays(30), now);
         
-        long paidOrders = orderRepository.countByPaymentStatus(PaymentStatus.PAID);
-        long pendingPayments = orderRepository.countByPaymentStatus(PaymentStatus.PENDING);
+        return StatsOverviewResponse.builder()
+                .totalOrders(counts.getTotalOrders())
+                .pendingOrders(counts.getPendingOrders())
+                .processingOrders(counts.getProcessingOrders())
+                .deliveredOrders(counts.getDeliveredOrders())
+                .cancelledOrders(counts.getCancelledOrders())
+                .totalRevenue(counts.getTotalRevenue() != null ? counts.getTotalRevenue() : BigDecimal.ZERO)
+                .paidOrders(counts.getPaidOrders())
+                .pendingPayments(counts.getPendingPayments())
+                .build();
+    }
+    
+    private StatsOverviewResponse getOverviewFromCounters() {
+        return StatsOverviewResponse.builder()
+                .totalOrders(orderCounterStore.getTotalOrders())
+                .pendingOrders(orderCounterStore.countByStatus(OrderStatus.PENDING))
+                .processingOrders(orderCounterStore.countByStatus(OrderStatus.PROCESSING))
+                .deliveredOrders(orderCounterStore.countByStatus(OrderStatus.DELIVERED))
+                .cancelledOrders(orderCounterStore.countByStatus(OrderStatus.CANCELLED))
+                .totalRevenue(orderCounterStore.sumPaidRevenueSince(LocalDate.now().minusDays(30)))
+                .paidOrders(orderCounterStore.countByPaymentStatus(PaymentStatus.PAID))
+                .pendingPayments(orderCounterStore.countByPaymentStatus(PaymentStatus.PENDING))
+                .build();
+    }
+    
+    private StatsOverviewResponse getOverviewFromViews() {
+        Map<String, Long> byStatus = toMap(analyticsViewRepository.countByStatusGrouped());
+        Map<String, Long> byPaymentStatus = toMap(analyticsViewRepository.countByPaymentStatusGrouped());
+        long totalOrders = byStatus.values().stream().mapToLong(Long::longValue).sum();
         
-        LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
-        BigDecimal totalRevenue = orderRepository.sumTotalByPaymentStatusAndDateRange(
-                PaymentStatus.PAID, thirtyDaysAgo, LocalDateTime.now());
+        BigDecimal totalRevenue = analyticsViewRepository.sumPaidRevenueSince(LocalDate.now().minusDays(30));
         
         return StatsOverviewResponse.builder()
                 .totalOrders(totalOrders)
-                .pendingOrders(pendingOrders)
-                .processingOrders(processingOrders)
-                .deliveredOrders(deliveredOrders)
-                .cancelledOrders(cancelledOrders)
+                .pendingOrders(byStatus.getOrDefault(OrderStatus.PENDING.name(), 0L))
+                .processingOrders(byStatus.getOrDefault(OrderStatus.PROCESSING.name(), 0L))
+                .deliveredOrders(byStatus.getOrDefault(OrderStatus.DELIVERED.name(), 0L))
+                .cancelledOrders(byStatus.getOrDefault(OrderStatus.CANCELLED.name(), 0L))
                 .totalRevenue(totalRevenue != null ? totalRevenue : BigDecimal.ZERO)
-                .paidOrders(paidOrders)
-                .pendingPayments(pendingPayments)
+                .paidOrders(byPaymentStatus.getOrDefault(PaymentStatus.PAID.name(), 0L))
+                .pendingPayments(byPaymentStatus.getOrDefault(PaymentStatus.PENDING.name(), 0L))
+                .refreshedAt(analyticsViewService.getOldestRefresh())
                 .build();
     }
     
     public List<Object[]> getOrdersByStatus() {
+        if (orderCounterStore.isReady()) {
+            return orderCounterStore.getStatusCountRows();
+        }
+        if (analyticsViewService.isAvailable()) {
+            return analyticsViewRepository.countByStatusGrouped();
+        }
         return orderRepository.countByStatusGrouped();
     }
     
     public List<Object[]> getOrdersByState() {
+        if (orderCounterStore.isReady()) {
+            return orderCounterStore.getStateCountRows();
+        }
+        if (analyticsViewService.isAvailable()) {
+            return analyticsViewRepository.countByState();
+        }
         return orderRepository.countByState();
     }
     
     public List<Object[]> getTopSellingSizes() {
+        if (analyticsViewService.isAvailable()) {
+            return analyticsViewRepository.findTopSellingSizes();
+        }
         return orderItemRepository.findTopSellingSizes();
     }
     
     public List<Object[]> getDailySales(LocalDateTime from, LocalDateTime to) {
+        if (analyticsViewService.isAvailable()) {
+            return analyticsViewRepository.getDailySales(from.toLocalDate(), to.toLocalDate());
+        }
         return orderRepository.getDailySales(from, to);
     }
     
     public Map<String, Long> getOrdersByStatusMap() {
-        List<Object[]> results = orderRepository.countByStatusGrouped();
-        Map<String, Long> statusMap = new HashMap<>();
+        if (orderCounterStore.isReady()) {
+            return orderCounterStore.getStatusCounts();
+        }
+        return toMap(getOrdersByStatus());
+    }
+    
+    public Map<String, Object> getFreshness() {
+        return analyticsViewService.getFreshness();
+    }
+    
+    private Map<String, Long> toMap(List<Object[]> results) {
+        Map<String, Long> map = new HashMap<>();
         for (Object[] row : results) {
-            statusMap.put(row[0].toString(), (Long) row[1]);
+            if (row[0] != null) {
+                map.put(row[0].toString(), ((Number) row[1]).longValue());
+            }
         }
-        return statusMap;
+        return map;
     }
 }
@@ -2,7 +2,10 @@ package com.polaroid.service;
 
 import com.polaroid.model.enums.PaymentStatus;
 import com.polaroid.repository.OrderRepository;
+import com.polaroid.security.BoundedPasswordEncoder;
 import lombok.RequiredArgsConstructor;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.pool.PoolStats;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -19,6 +22,9 @@ public class SystemService {
     
     private final OrderRepository orderRepository;
     private final FileService fileService;
+    private final PoolingHttpClientConnectionManager storageConnectionManager;
+    private final PoolingHttpClientConnectionManager paymentConnectionManager;
+    private final BoundedPasswordEncoder passwordEncoder;
     
     @Value("${toyyibpay.fee-percentage:2.5}")
     private BigDecimal feePercentage;
@@ -85,6 +91,26 @@ public class SystemService {
         return info;
     }
     
+    public Map<String, Object> getHttpPoolInfo() {
+        Map<String, Object> info = new HashMap<>();
+        info.put("storage", toPoolInfo(storageConnectionManager.getTotalStats()));
+        info.put("payment", toPoolInfo(paymentConnectionManager.getTotalStats()));
+        return info;
+    }
+    
+    public Map<String, Object> getPasswordHashingInfo() {
+        return passwordEncoder.getStats();
+    }
+    
+    private Map<String, Object> toPoolInfo(PoolStats stats) {
+        Map<String, Object> info = new HashMap<>();
+        info.put("leased", stats.getLeased());
+        info.put("available", stats.getAvailable());
+        info.put("pending", stats.getPending());
+        info.put("max", stats.getMax());
+        return info;
+    }
+    
     public Map<String, Object> getServerInfo() {
         Map<String, Object> info = new HashMap<>();
         
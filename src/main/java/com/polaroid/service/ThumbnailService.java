@@ -0,0 +1,229 @@
+package com.polaroid.service;
+
+import com.polaroid.model.ImageThumbnail;
+import com.polaroid.model.enums.ThumbnailState;
+import com.polaroid.repository.ImageThumbnailRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.*;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ThumbnailService {
+    
+    public static final String ORIGINAL_PREFIX = "original/";
+    public static final String THUMB_PREFIX = "thumb/";
+    
+    private static final int RETRY_BATCH_SIZE = 100;
+    
+    private final RestTemplate storageRestTemplate;
+    private final ThreadPoolTaskExecutor imageProcessingExecutor;
+    private final ImageThumbnailRepository imageThumbnailRepository;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    
+    @Value("${supabase.url:https://placeholder.supabase.co}")
+    private String supabaseUrl;
+    
+    @Value("${supabase.key:placeholder-key}")
+    private String supabaseKey;
+    
+    @Value("${supabase.storage-bucket:polaroid-glossy}")
+    private String bucketName;
+    
+    @Value("${storage.thumbnail.max-size:400}")
+    private int maxSize;
+    
+    @Value("${storage.thumbnail.quality:0.8}")
+    private float quality;
+    
+    @Value("${storage.thumbnail.max-attempts:5}")
+    private int maxAttempts;
+    
+    @Value("${storage.thumbnail.retry-interval-ms:60000}")
+    private long retryIntervalMs;
+    
+    public static String toThumbnailKey(String key) {
+        return key.startsWith(ORIGINAL_PREFIX) ? THUMB_PREFIX + key.substring(ORIGINAL_PREFIX.length()) : key;
+    }
+    
+    /**
+     * Records the original as PENDING and queues its preview. When the queue is
+     * full the row stays PENDING and {@link #retryPending()} picks it up later.
+     */
+    public void generateAsync(String key) {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            imageThumbnailRepository.save(ImageThumbnail.builder()
+                    .originalKey(key)
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build());
+        } catch (DataAccessException e) {
+            log.warn("Failed to record thumbnail for {}: {}", key, e.getMessage());
+            return;
+        }
+        submit(key);
+    }
+    
+    public void generate(String key) {
+        try {
+            String downloadUrl = String.format("%s/storage/v1/object/%s/%s", supabaseUrl, bucketName, key);
+            
+            byte[] thumbnail = storageRestTemplate.execute(downloadUrl, HttpMethod.GET,
+                    request -> request.getHeaders().set("Authorization", "Bearer " + supabaseKey),
+                    response -> createThumbnail(response.getBody()));
+            
+            String thumbKey = toThumbnailKey(key);
+            String uploadUrl = String.format("%s/storage/v1/object/%s/%s", supabaseUrl, bucketName, thumbKey);
+            
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.IMAGE_JPEG);
+            headers.set("Authorization", "Bearer " + supabaseKey);
+            headers.set("x-upsert", "true");
+            
+            storageRestTemplate.exchange(uploadUrl, HttpMethod.PUT, new HttpEntity<>(thumbnail, headers), String.class);
+            imageThumbnailRepository.recordAttempt(key, ThumbnailState.READY, null, LocalDateTime.now());
+        } catch (Exception e) {
+            log.warn("Failed to generate thumbnail for {}: {}", key, e.getMessage());
+            imageThumbnailRepository.recordAttempt(key, ThumbnailState.PENDING, e.getMessage(), LocalDateTime.now());
+            imageThumbnailRepository.failIfExhausted(key, ThumbnailState.FAILED, maxAttempts);
+        }
+    }
+    
+    /**
+     * Requeues previews that were skipped or failed. Rows touched within the
+     * last retry interval are left alone, and keys still queued or running on
+     * this instance are skipped by {@link #submit}, so work that waited in the
+     * queue longer than the interval is not decoded twice.
+     */
+    @Scheduled(fixedDelayString = "${storage.thumbnail.retry-interval-ms:60000}")
+    public void retryPending() {
+        try {
+            LocalDateTime before = LocalDateTime.now().minus(Duration.ofMillis(retryIntervalMs));
+            for (String key : imageThumbnailRepository.findPendingKeys(before, Limit.of(RETRY_BATCH_SIZE))) {
+                if (!submit(key)) {
+                    break;
+                }
+            }
+        } catch (DataAccessException e) {
+            log.warn("Failed to requeue pending thumbnails: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Returns the original keys among {@code keys} whose preview exists.
+     */
+    public Set<String> findReady(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(imageThumbnailRepository.findReadyKeys(keys));
+    }
+    
+    public void forget(String key) {
+        imageThumbnailRepository.deleteById(key);
+    }
+    
+    private boolean submit(String key) {
+        if (!inFlight.add(key)) {
+            return true;
+        }
+        try {
+            imageProcessingExecutor.execute(() -> {
+                try {
+                    generate(key);
+                } finally {
+                    inFlight.remove(key);
+                }
+            });
+            return true;
+        } catch (TaskRejectedException e) {
+            inFlight.remove(key);
+            log.warn("Thumbnail queue full, {} stays pending", key);
+            return false;
+        }
+    }
+    
+    private byte[] createThumbnail(InputStream inputStream) throws IOException {
+        BufferedImage source;
+        try (ImageInputStream imageInput = ImageIO.createImageInputStream(inputStream)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(imageInput);
+            if (!readers.hasNext()) {
+                throw new IOException("Unsupported image format");
+            }
+            
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(imageInput, true, true);
+                int longestSide = Math.max(reader.getWidth(0), reader.getHeight(0));
+                int subsampling = Math.max(1, longestSide / (maxSize * 2));
+                
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                source = reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+        
+        double scale = Math.min(1.0, (double) maxSize / Math.max(source.getWidth(), source.getHeight()));
+        int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+        
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (ImageOutputStream imageOutput = ImageIO.createImageOutputStream(outputStream)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            
+            writer.setOutput(imageOutput);
+            writer.write(null, new IIOImage(target, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        
+        return outputStream.toByteArray();
+    }
+}
@@ -0,0 +1,168 @@
+package com.polaroid.service;
+
+import com.polaroid.exception.PaymentGatewayException;
+import com.polaroid.model.Order;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ToyyibPay createBill client behind a consecutive-failure circuit breaker. After
+ * failure-threshold failures in a row the circuit opens for open-duration; then a
+ * single trial call is let through and its outcome closes or re-opens it.
+ */
+@Component
+@Slf4j
+public class ToyyibPayClient {
+    
+    private final RestTemplate paymentRestTemplate;
+    private final String baseUrl;
+    private final int failureThreshold;
+    private final long openDurationMillis;
+    
+    @Value("${toyyibpay.secret-key}")
+    private String toyyibpaySecretKey;
+    
+    @Value("${toyyibpay.category-code}")
+    private String categoryCode;
+    
+    @Value("${toyyibpay.return-url}")
+    private String returnUrl;
+    
+    @Value("${toyyibpay.callback-url}")
+    private String callbackUrl;
+    
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicBoolean trialInFlight = new AtomicBoolean();
+    private volatile long openUntil;
+    
+    public ToyyibPayClient(
+            RestTemplate paymentRestTemplate,
+            @Value("${toyyibpay.base-url:https://toyyibpay.com}") String baseUrl,
+            @Value("${toyyibpay.circuit-breaker.failure-threshold:5}") int failureThreshold,
+            @Value("${toyyibpay.circuit-breaker.open-duration:30s}") Duration openDuration) {
+        this.paymentRestTemplate = paymentRestTemplate;
+        this.baseUrl = baseUrl;
+        this.failureThreshold = failureThreshold;
+        this.openDurationMillis = openDuration.toMillis();
+    }
+    
+    /**
+     * Whether a call would currently be attempted. When this returns true for a
+     * half-open circuit, the caller holds the single trial slot and must call
+     * {@link #createBill}.
+     */
+    public boolean tryAcquire() {
+        if (consecutiveFailures.get() < failureThreshold) {
+            return true;
+        }
+        if (System.currentTimeMillis() < openUntil) {
+            return false;
+        }
+        return trialInFlight.compareAndSet(false, true);
+    }
+    
+    public long getRetryAfterMillis() {
+        return Math.max(openUntil - System.currentTimeMillis(), 0);
+    }
+    
+    public String getPaymentUrl(String billCode) {
+        return baseUrl + "/" + billCode;
+    }
+    
+    public String createBill(Order order) {
+        try {
+            return callCreateBill(order);
+        } finally {
+            // Whatever happened, including errors that are not gateway failures,
+            // the half-open trial is over.
+            trialInFlight.set(false);
+        }
+    }
+    
+    private String callCreateBill(Order order) {
+        MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+        params.add("userSecretKey", toyyibpaySecretKey);
+        params.add("categoryCode", categoryCode);
+        params.add("billName", truncate(order.getOrderNumber(), 30));
+        params.add("billDescription", "Polaroid Glossy - " + order.getOrderNumber());
+        params.add("billPriceSetting", "1");
+        params.add("billPayorInfo", "1");
+        params.add("billAmount", String.valueOf(order.getTotal().multiply(new BigDecimal("100")).intValue()));
+        params.add("billReturnUrl", returnUrl + "?order_id=" + order.getOrderNumber());
+        params.add("billCallbackUrl", callbackUrl);
+        params.add("billExternalReferenceNo", order.getOrderNumber());
+        params.add("billTo", order.getCustomerName());
+        params.add("billEmail", order.getCustomerEmail());
+        params.add("billPhone", order.getCustomerPhone() != null ? order.getCustomerPhone() : "");
+        params.add("billPaymentChannel", "0");
+        params.add("billChargeToCustomer", "1");
+        
+        try {
+            String response = paymentRestTemplate.postForObject(
+                    baseUrl + "/index.php/api/createBill", params, String.class);
+            String billCode = extractBillCode(response);
+            onSuccess();
+            return billCode;
+        } catch (RestClientException | PaymentGatewayException e) {
+            onFailure();
+            if (e instanceof PaymentGatewayException gatewayException) {
+                throw gatewayException;
+            }
+            throw new PaymentGatewayException("ToyyibPay createBill failed: " + e.getMessage(), e);
+        }
+    }
+    
+    private void onSuccess() {
+        consecutiveFailures.set(0);
+    }
+    
+    private void onFailure() {
+        if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            openUntil = System.currentTimeMillis() + openDurationMillis;
+            log.warn("ToyyibPay circuit open for {} ms after {} consecutive failures",
+                    openDurationMillis, consecutiveFailures.get());
+        }
+    }
+    
+    private String extractBillCode(String response) {
+        if (response == null || response.isEmpty()) {
+            throw new PaymentGatewayException("Empty response from ToyyibPay");
+        }
+        
+        response = response.trim();
+        
+        if (response.startsWith("[")) {
+            response = response.substring(1);
+        }
+        if (response.endsWith("]")) {
+            response = response.substring(0, response.length() - 1);
+        }
+        
+        int key = response.indexOf("\"BillCode\"");
+        if (key >= 0) {
+            int colon = response.indexOf(':', key);
+            int start = colon < 0 ? -1 : response.indexOf('"', colon) + 1;
+            int end = start > 0 ? response.indexOf('"', start) : -1;
+            if (end > start) {
+                return response.substring(start, end);
+            }
+        }
+        
+        return response.replace("\"", "").trim();
+    }
+    
+    private String truncate(String str, int maxLength) {
+        if (str == null) return "";
+        return str.length() > maxLength ? str.substring(0, maxLength) : str;
+    }
+}
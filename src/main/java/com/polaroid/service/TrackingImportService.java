@@ -0,0 +1,163 @@
+package com.polaroid.service;
+
+import com.polaroid.dto.response.TrackingImportReport;
+import com.polaroid.exception.BadRequestException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Imports courier manifests (CSV with order_number and tracking_number
+ * columns). The upload is read line by line and applied in fixed-size chunks,
+ * and rejected rows are spooled to a temporary CSV, so memory use does not
+ * grow with the file.
+ */
+@Service
+@Slf4j
+public class TrackingImportService {
+    
+    private static final String ORDER_NUMBER_COLUMN = "order_number";
+    private static final String TRACKING_NUMBER_COLUMN = "tracking_number";
+    private static final int MAX_TRACKING_NUMBER_LENGTH = 100;
+    
+    private final TrackingImportStore trackingImportStore;
+    private final int batchSize;
+    
+    public TrackingImportService(
+            TrackingImportStore trackingImportStore,
+            @Value("${tracking-import.batch-size:500}") int batchSize) {
+        this.trackingImportStore = trackingImportStore;
+        this.batchSize = batchSize;
+    }
+    
+    /**
+     * Result of an import. The caller owns {@code errorReport} and must delete it.
+     */
+    public record TrackingImport(TrackingImportReport report, Path errorReport) {
+    }
+    
+    public TrackingImport importCsv(InputStream input, String userEmail) throws IOException {
+        long start = System.nanoTime();
+        Path errorReport = Files.createTempFile("tracking-import-errors-", ".csv");
+        
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+             BufferedWriter errors = Files.newBufferedWriter(errorReport, StandardCharsets.UTF_8)) {
+            
+            String header = reader.readLine();
+            if (header == null) {
+                throw new BadRequestException("CSV file is empty");
+            }
+            List<String> columns = CsvFormat.parseLine(stripBom(header)).stream()
+                    .map(column -> column.toLowerCase(Locale.ROOT).replace(' ', '_'))
+                    .toList();
+            int orderNumberIndex = columns.indexOf(ORDER_NUMBER_COLUMN);
+            int trackingNumberIndex = columns.indexOf(TRACKING_NUMBER_COLUMN);
+            if (orderNumberIndex < 0 || trackingNumberIndex < 0) {
+                throw new BadRequestException("CSV header must contain order_number and tracking_number columns");
+            }
+            errors.write("line,order_number,tracking_number,error");
+            errors.newLine();
+            
+            int total = 0;
+            int updated = 0;
+            int posted = 0;
+            int failed = 0;
+            long lineNumber = 1;
+            List<TrackingImportStore.Row> chunk = new ArrayList<>(batchSize);
+            
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                total++;
+                
+                List<String> fields = CsvFormat.parseLine(line);
+                TrackingImportStore.Row row = new TrackingImportStore.Row(
+                        lineNumber, field(fields, orderNumberIndex), field(fields, trackingNumberIndex));
+                String error = validate(row);
+                if (error != null) {
+                    writeError(errors, row, error);
+                    failed++;
+                    continue;
+                }
+                
+                chunk.add(row);
+                if (chunk.size() == batchSize) {
+                    TrackingImportStore.Result result = trackingImportStore.apply(chunk, userEmail);
+                    updated += result.updated();
+                    posted += result.posted();
+                    failed += writeErrors(errors, result.failures());
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                TrackingImportStore.Result result = trackingImportStore.apply(chunk, userEmail);
+                updated += result.updated();
+                posted += result.posted();
+                failed += writeErrors(errors, result.failures());
+            }
+            
+            TrackingImportReport report = TrackingImportReport.builder()
+                    .total(total)
+                    .updated(updated)
+                    .posted(posted)
+                    .failed(failed)
+                    .elapsedMs((System.nanoTime() - start) / 1_000_000)
+                    .build();
+            log.info("Tracking import by {}: {} rows, {} updated, {} posted, {} failed in {} ms",
+                    userEmail, total, updated, posted, failed, report.getElapsedMs());
+            return new TrackingImport(report, errorReport);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(errorReport);
+            throw e;
+        }
+    }
+    
+    private String validate(TrackingImportStore.Row row) {
+        if (row.orderNumber().isEmpty()) {
+            return "Missing order_number";
+        }
+        if (row.trackingNumber().isEmpty()) {
+            return "Missing tracking_number";
+        }
+        if (row.trackingNumber().length() > MAX_TRACKING_NUMBER_LENGTH) {
+            return "tracking_number is longer than " + MAX_TRACKING_NUMBER_LENGTH + " characters";
+        }
+        return null;
+    }
+    
+    private int writeErrors(BufferedWriter errors, List<TrackingImportStore.Failure> failures) throws IOException {
+        for (TrackingImportStore.Failure failure : failures) {
+            writeError(errors, failure.row(), failure.error());
+        }
+        return failures.size();
+    }
+    
+    private void writeError(BufferedWriter errors, TrackingImportStore.Row row, String error) throws IOException {
+        errors.write(row.line() + "," + CsvFormat.escape(row.orderNumber()) + ","
+                + CsvFormat.escape(row.trackingNumber()) + "," + CsvFormat.escape(error));
+        errors.newLine();
+    }
+    
+    private static String field(List<String> fields, int index) {
+        return index < fields.size() ? fields.get(index) : "";
+    }
+    
+    private static String stripBom(String header) {
+        return header.startsWith("\uFEFF") ? header.substring(1) : header;
+    }
+}
@@ -0,0 +1,122 @@
+package com.polaroid.service;
+
+import com.polaroid.dto.projection.OrderTrackingTarget;
+import com.polaroid.event.OrderChangedEvent;
+import com.polaroid.model.enums.OrderStatus;
+import com.polaroid.repository.OrderRepository;
+import com.polaroid.repository.OrderTrackingRepository;
+import com.polaroid.repository.OrderTrackingRepository.TrackingUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Applies one chunk of a tracking import in its own transaction, so a large
+ * manifest never holds locks or a persistence context for the whole file.
+ */
+@Service
+@RequiredArgsConstructor
+public class TrackingImportStore {
+    
+    private static final String POSTED_MESSAGE = "Order posted";
+    
+    private final OrderRepository orderRepository;
+    private final OrderTrackingRepository orderTrackingRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    public record Row(long line, String orderNumber, String trackingNumber) {
+    }
+    
+    public record Failure(Row row, String error) {
+    }
+    
+    public record Result(int updated, int posted, List<Failure> failures) {
+    }
+    
+    /**
+     * Pending and processing orders are moved to POSTED with a history row, as
+     * {@link OrderService#updateOrderStatus} does. Orders that are already on
+     * their way only get the new tracking number; cancelled orders are rejected.
+     */
+    @Transactional
+    public Result apply(List<Row> rows, String userEmail) {
+        Set<String> orderNumbers = rows.stream().map(Row::orderNumber).collect(Collectors.toSet());
+        Map<String, OrderTrackingTarget> targets = orderRepository.findTrackingTargetsByOrderNumberIn(orderNumbers).stream()
+                .collect(Collectors.toMap(OrderTrackingTarget::getOrderNumber, Function.identity()));
+        
+        List<Failure> failures = new ArrayList<>();
+        List<Row> postingRows = new ArrayList<>();
+        List<TrackingUpdate> posting = new ArrayList<>();
+        List<Row> trackingRows = new ArrayList<>();
+        List<TrackingUpdate> tracking = new ArrayList<>();
+        Set<UUID> postingIds = new HashSet<>();
+        
+        for (Row row : rows) {
+            OrderTrackingTarget target = targets.get(row.orderNumber());
+            if (target == null) {
+                failures.add(new Failure(row, "Order not found"));
+            } else if (target.getStatus() == OrderStatus.CANCELLED) {
+                failures.add(new Failure(row, "Order is cancelled"));
+            } else if ((target.getStatus() == OrderStatus.PENDING || target.getStatus() == OrderStatus.PROCESSING)
+                    && postingIds.add(target.getId())) {
+                postingRows.add(row);
+                posting.add(new TrackingUpdate(target.getId(), row.trackingNumber()));
+            } else {
+                trackingRows.add(row);
+                tracking.add(new TrackingUpdate(target.getId(), row.trackingNumber()));
+            }
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        List<UUID> posted = posting.isEmpty()
+                ? List.of()
+                : orderTrackingRepository.markPosted(posting, now, userEmail);
+        boolean[] tracked = tracking.isEmpty()
+                ? new boolean[0]
+                : orderTrackingRepository.updateTrackingNumbers(tracking, now, userEmail);
+        
+        if (!posted.isEmpty()) {
+            orderTrackingRepository.insertStatusHistory(posted, OrderStatus.POSTED.name(), POSTED_MESSAGE, now, userEmail);
+        }
+        
+        Set<UUID> postedIds = new HashSet<>(posted);
+        for (Row row : postingRows) {
+            OrderTrackingTarget target = targets.get(row.orderNumber());
+            if (!postedIds.contains(target.getId())) {
+                failures.add(new Failure(row, "Order status changed during import"));
+                continue;
+            }
+            eventPublisher.publishEvent(OrderChangedEvent.builder()
+                    .customerState(target.getCustomerState())
+                    .total(target.getTotal())
+                    .createdAt(target.getCreatedAt())
+                    .oldStatus(target.getStatus())
+                    .newStatus(OrderStatus.POSTED)
+                    .oldPaymentStatus(target.getPaymentStatus())
+                    .newPaymentStatus(target.getPaymentStatus())
+                    .build());
+        }
+        
+        int trackedRows = 0;
+        for (int i = 0; i < tracked.length; i++) {
+            if (tracked[i]) {
+                trackedRows++;
+            } else {
+                failures.add(new Failure(trackingRows.get(i), "Order was cancelled or removed during import"));
+            }
+        }
+        
+        return new Result(trackedRows + posted.size(), posted.size(), failures);
+    }
+}
@@ -3,13 +3,17 @@ package com.polaroid.service;
 import com.polaroid.dto.mapper.UserMapper;
 import com.polaroid.dto.response.UserResponse;
 import com.polaroid.dto.request.UserRoleUpdateRequest;
+import com.polaroid.event.UserChangedEvent;
 import com.polaroid.exception.BadRequestException;
 import com.polaroid.exception.ResourceNotFoundException;
 import com.polaroid.model.User;
 import com.polaroid.model.enums.Role;
+import com.polaroid.repository.SearchPatterns;
 import com.polaroid.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -24,6 +28,7 @@ public class UserService {
     
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final ApplicationEventPublisher eventPublisher;
     
     public Page<UserResponse> getAllUsers(Pageable pageable) {
         return userRepository.findAll(pageable)
@@ -35,8 +40,18 @@ public class UserService {
                 .map(userMapper::toDto);
     }
     
+    /**
+     * Exact email matches rank first, then name or email prefixes, then other
+     * substring matches, newest first within each rank. The ranking replaces
+     * the caller's sort.
+     */
     public Page<UserResponse> searchUsers(String query, Pageable pageable) {
-        return userRepository.findByNameContainingIgnoreCaseOrEmailContainingIgnoreCase(query, query, pageable)
+        Pageable unsorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        return userRepository.searchRanked(
+                        SearchPatterns.normalize(query),
+                        SearchPatterns.startsWith(query),
+                        SearchPatterns.contains(query),
+                        unsorted)
                 .map(userMapper::toDto);
     }
     
@@ -58,7 +73,9 @@ public class UserService {
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
         
         user.setRole(request.getRole());
+        user.setTokenVersion(user.getTokenVersion() + 1);
         user = userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getEmail()));
         
         return userMapper.toDto(user);
     }
@@ -69,7 +86,9 @@ public class UserService {
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
         
         user.setIsActive(!user.getIsActive());
+        user.setTokenVersion(user.getTokenVersion() + 1);
         user = userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getEmail()));
         
         return userMapper.toDto(user);
     }
@@ -86,6 +105,7 @@ public class UserService {
         String affiliateCode = "PG" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
         user.setAffiliateCode(affiliateCode);
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getEmail()));
         
         return affiliateCode;
     }
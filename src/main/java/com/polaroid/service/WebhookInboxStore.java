@@ -0,0 +1,115 @@
+package com.polaroid.service;
+
+import com.polaroid.model.WebhookInboxEntry;
+import com.polaroid.model.enums.PaymentStatus;
+import com.polaroid.model.enums.WebhookInboxState;
+import com.polaroid.repository.WebhookInboxRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+public class WebhookInboxStore {
+    
+    private final WebhookInboxRepository webhookInboxRepository;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    
+    public WebhookInboxStore(
+            WebhookInboxRepository webhookInboxRepository,
+            @Value("${webhook.inbox.max-attempts:10}") int maxAttempts,
+            @Value("${webhook.inbox.retry-backoff:5s}") Duration retryBackoff) {
+        this.webhookInboxRepository = webhookInboxRepository;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = retryBackoff;
+    }
+    
+    /**
+     * Appends a callback to the inbox. Returns false when the same
+     * (refno, status, billcode) was already recorded for the provider.
+     */
+    public boolean record(String provider, String refno, PaymentStatus status, String billCode, String amount) {
+        String dedupKey = refno + "|" + status + "|" + (billCode != null ? billCode : "");
+        try {
+            webhookInboxRepository.save(WebhookInboxEntry.builder()
+                    .provider(provider)
+                    .dedupKey(dedupKey)
+                    .refno(refno)
+                    .status(status)
+                    .billCode(billCode)
+                    .amount(amount)
+                    .receivedAt(LocalDateTime.now())
+                    .build());
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+    
+    /**
+     * Claims the oldest pending callbacks due by {@code dueBy} for this node
+     * and counts the attempt.
+     */
+    @Transactional
+    public List<WebhookInboxEntry> claimBatch(int limit, LocalDateTime dueBy) {
+        LocalDateTime now = LocalDateTime.now();
+        List<WebhookInboxEntry> batch = webhookInboxRepository.findPendingForUpdate(dueBy, Limit.of(limit));
+        batch.forEach(entry -> {
+            entry.setState(WebhookInboxState.PROCESSING);
+            entry.setClaimedAt(now);
+            entry.setAttempts(entry.getAttempts() + 1);
+        });
+        return webhookInboxRepository.saveAll(batch);
+    }
+    
+    @Transactional
+    public void markProcessed(Collection<Long> ids) {
+        webhookInboxRepository.markFinished(ids, WebhookInboxState.PROCESSED, null, LocalDateTime.now());
+    }
+    
+    @Transactional
+    public void markRejected(Collection<Long> ids, String error) {
+        webhookInboxRepository.markFinished(ids, WebhookInboxState.FAILED, error, LocalDateTime.now());
+    }
+    
+    /**
+     * Returns callbacks to the inbox after a transient failure, due again after
+     * an exponential backoff, or marks them FAILED once they have used up
+     * max-attempts.
+     */
+    @Transactional
+    public void markFailed(List<WebhookInboxEntry> entries, String error) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> exhausted = entries.stream()
+                .filter(entry -> entry.getAttempts() >= maxAttempts)
+                .map(WebhookInboxEntry::getId)
+                .toList();
+        Map<Integer, List<Long>> retryableByAttempts = entries.stream()
+                .filter(entry -> entry.getAttempts() < maxAttempts)
+                .collect(Collectors.groupingBy(WebhookInboxEntry::getAttempts,
+                        Collectors.mapping(WebhookInboxEntry::getId, Collectors.toList())));
+        
+        if (!exhausted.isEmpty()) {
+            webhookInboxRepository.markFinished(exhausted, WebhookInboxState.FAILED, error, now);
+        }
+        retryableByAttempts.forEach((attempts, ids) -> {
+            long delay = retryBackoff.toMillis() << Math.min(attempts - 1, 10);
+            webhookInboxRepository.release(ids, WebhookInboxState.PENDING, error, now.plus(Duration.ofMillis(delay)));
+        });
+    }
+    
+    @Transactional
+    public int resetStale(Duration staleAfter) {
+        return webhookInboxRepository.resetStale(
+                WebhookInboxState.PENDING, WebhookInboxState.PROCESSING, LocalDateTime.now().minus(staleAfter));
+    }
+}
@@ -0,0 +1,89 @@
+package com.polaroid.service;
+
+import com.polaroid.exception.ResourceNotFoundException;
+import com.polaroid.model.WebhookInboxEntry;
+import com.polaroid.model.enums.PaymentStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Applies inbox callbacks to orders. Each claimed batch is grouped by order so
+ * a burst of callbacks for one order costs a single payment status update.
+ */
+@Component
+@Slf4j
+public class WebhookInboxWorker {
+    
+    private final WebhookInboxStore inboxStore;
+    private final OrderService orderService;
+    private final int batchSize;
+    private final Duration staleAfter;
+    
+    public WebhookInboxWorker(
+            WebhookInboxStore inboxStore,
+            OrderService orderService,
+            @Value("${webhook.inbox.batch-size:100}") int batchSize,
+            @Value("${webhook.inbox.stale-after:2m}") Duration staleAfter) {
+        this.inboxStore = inboxStore;
+        this.orderService = orderService;
+        this.batchSize = batchSize;
+        this.staleAfter = staleAfter;
+    }
+    
+    @Scheduled(fixedDelayString = "${webhook.inbox.poll-interval-ms:1000}")
+    public void drain() {
+        try {
+            int reset = inboxStore.resetStale(staleAfter);
+            if (reset > 0) {
+                log.warn("Requeued {} stale webhook callbacks", reset);
+            }
+            
+            // Only rows due when the drain started: callbacks released for a
+            // retry during this drain wait out their backoff.
+            LocalDateTime dueBy = LocalDateTime.now();
+            List<WebhookInboxEntry> batch;
+            do {
+                batch = inboxStore.claimBatch(batchSize, dueBy);
+                apply(batch);
+            } while (batch.size() == batchSize);
+        } catch (DataAccessException e) {
+            log.warn("Failed to drain webhook inbox: {}", e.getMessage());
+        }
+    }
+    
+    private void apply(List<WebhookInboxEntry> batch) {
+        Map<String, List<WebhookInboxEntry>> byOrder = batch.stream()
+                .collect(Collectors.groupingBy(WebhookInboxEntry::getRefno, LinkedHashMap::new, Collectors.toList()));
+        
+        byOrder.forEach((orderNumber, entries) -> {
+            List<Long> ids = entries.stream().map(WebhookInboxEntry::getId).toList();
+            try {
+                orderService.updatePaymentStatus(orderNumber, resolve(entries));
+                inboxStore.markProcessed(ids);
+            } catch (ResourceNotFoundException e) {
+                inboxStore.markRejected(ids, e.getMessage());
+            } catch (RuntimeException e) {
+                log.warn("Failed to apply {} callbacks for order {}: {}", entries.size(), orderNumber, e.getMessage());
+                inboxStore.markFailed(entries, e.getMessage());
+            }
+        });
+    }
+    
+    /**
+     * A PAID callback anywhere in the batch wins; otherwise the latest one does.
+     */
+    private PaymentStatus resolve(List<WebhookInboxEntry> entries) {
+        boolean paid = entries.stream().anyMatch(entry -> entry.getStatus() == PaymentStatus.PAID);
+        return paid ? PaymentStatus.PAID : entries.get(entries.size() - 1).getStatus();
+    }
+}
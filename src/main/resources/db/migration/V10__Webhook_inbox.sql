@@ -0,0 +1,25 @@
+-- Polaroid Glossy Database Migration V10
+-- Append-only inbox for payment gateway callbacks
+
+-- =============================================
+-- WEBHOOK INBOX TABLE
+-- =============================================
+CREATE TABLE webhook_inbox (
+    id BIGSERIAL PRIMARY KEY,
+    provider VARCHAR(20) NOT NULL,
+    dedup_key VARCHAR(300) NOT NULL,
+    refno VARCHAR(100) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    bill_code VARCHAR(100),
+    amount VARCHAR(50),
+    state VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    last_error TEXT,
+    received_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    claimed_at TIMESTAMPTZ,
+    processed_at TIMESTAMPTZ
+);
+
+-- Retried or duplicated callbacks collapse onto the first row
+CREATE UNIQUE INDEX idx_webhook_inbox_dedup ON webhook_inbox(provider, dedup_key);
+CREATE INDEX idx_webhook_inbox_pending ON webhook_inbox(state, id);
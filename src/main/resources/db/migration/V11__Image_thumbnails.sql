@@ -0,0 +1,17 @@
+-- Polaroid Glossy Database Migration V11
+-- Tracks which uploaded originals have a generated preview
+
+-- =============================================
+-- IMAGE THUMBNAILS TABLE
+-- =============================================
+CREATE TABLE image_thumbnails (
+    original_key VARCHAR(500) PRIMARY KEY,
+    state VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    last_error TEXT,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+-- Sweep of previews that were never generated (queue full, restart, failure)
+CREATE INDEX idx_image_thumbnails_pending ON image_thumbnails(state, updated_at);
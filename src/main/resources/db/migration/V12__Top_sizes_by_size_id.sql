@@ -0,0 +1,20 @@
+-- Polaroid Glossy Database Migration V12
+-- Group top sizes by size id only, as the live query does; renamed sizes
+-- no longer split into one row per historical name
+
+DROP MATERIALIZED VIEW IF EXISTS mv_top_sizes;
+
+CREATE MATERIALIZED VIEW mv_top_sizes AS
+SELECT 
+    oi.size_id,
+    COALESCE(MAX(ps.name), MAX(oi.size_name)) as size_name,
+    SUM(oi.quantity) as total_prints,
+    COUNT(DISTINCT oi.order_id) as order_count
+FROM order_items oi
+JOIN orders o ON o.id = oi.order_id
+LEFT JOIN print_sizes ps ON ps.id = oi.size_id
+WHERE o.payment_status = 'PAID'
+GROUP BY oi.size_id;
+
+CREATE INDEX mv_top_sizes_total ON mv_top_sizes(total_prints DESC);
+CREATE UNIQUE INDEX mv_top_sizes_key ON mv_top_sizes(size_id);
@@ -0,0 +1,5 @@
+-- Polaroid Glossy Database Migration V13
+-- Back off between retries of a failed webhook callback instead of claiming
+-- it again on the next poll
+
+ALTER TABLE webhook_inbox ADD COLUMN next_attempt_at TIMESTAMPTZ;
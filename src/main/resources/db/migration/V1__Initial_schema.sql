@@ -193,7 +193,7 @@ SELECT
     oi.size_id,
     oi.size_name,
     SUM(oi.quantity) as total_prints,
-    COUNT(DISTINCT o.order_id) as order_count
+    COUNT(DISTINCT oi.order_id) as order_count
 FROM order_items oi
 JOIN orders o ON o.id = oi.order_id
 WHERE o.payment_status = 'PAID'
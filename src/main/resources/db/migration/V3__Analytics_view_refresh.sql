@@ -0,0 +1,40 @@
+-- Polaroid Glossy Database Migration V3
+-- Make analytics views refreshable CONCURRENTLY and track their freshness
+
+-- =============================================
+-- TOP SIZES VIEW (recreated: count distinct orders from order_items)
+-- =============================================
+DROP MATERIALIZED VIEW IF EXISTS mv_top_sizes;
+
+CREATE MATERIALIZED VIEW mv_top_sizes AS
+SELECT 
+    oi.size_id,
+    oi.size_name,
+    SUM(oi.quantity) as total_prints,
+    COUNT(DISTINCT oi.order_id) as order_count
+FROM order_items oi
+JOIN orders o ON o.id = oi.order_id
+WHERE o.payment_status = 'PAID'
+GROUP BY oi.size_id, oi.size_name;
+
+CREATE INDEX mv_top_sizes_total ON mv_top_sizes(total_prints DESC);
+
+-- =============================================
+-- UNIQUE INDEXES (required by REFRESH ... CONCURRENTLY)
+-- =============================================
+CREATE UNIQUE INDEX mv_daily_sales_date_key ON mv_daily_sales(sale_date);
+CREATE UNIQUE INDEX mv_orders_by_status_key ON mv_orders_by_status(status, payment_status, customer_state);
+CREATE UNIQUE INDEX mv_top_sizes_key ON mv_top_sizes(size_id, size_name);
+
+-- =============================================
+-- VIEW REFRESH TRACKING
+-- =============================================
+CREATE TABLE analytics_view_refresh (
+    view_name VARCHAR(64) PRIMARY KEY,
+    refreshed_at TIMESTAMPTZ NOT NULL
+);
+
+INSERT INTO analytics_view_refresh (view_name, refreshed_at) VALUES
+('mv_daily_sales', NOW()),
+('mv_orders_by_status', NOW()),
+('mv_top_sizes', NOW());
@@ -0,0 +1,13 @@
+-- Polaroid Glossy Database Migration V4
+-- Version stamps for cached reference data
+
+-- =============================================
+-- CATALOG VERSIONS TABLE
+-- =============================================
+CREATE TABLE catalog_versions (
+    name VARCHAR(50) PRIMARY KEY,
+    version BIGINT NOT NULL DEFAULT 0
+);
+
+INSERT INTO catalog_versions (name, version) VALUES
+('print_sizes', 1);
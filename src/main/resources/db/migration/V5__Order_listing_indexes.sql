@@ -0,0 +1,11 @@
+-- Polaroid Glossy Database Migration V5
+-- Composite indexes for filtered, newest-first order listings
+
+-- =============================================
+-- ORDER LISTING INDEXES
+-- =============================================
+-- Each common filter is an equality prefix followed by the keyset sort, so a
+-- filtered page is a bounded index range scan instead of a filter + sort.
+CREATE INDEX idx_orders_status_created_id ON orders(status, created_at DESC, id DESC);
+CREATE INDEX idx_orders_payment_created_id ON orders(payment_status, created_at DESC, id DESC);
+CREATE INDEX idx_orders_user_created_id ON orders(user_id, created_at DESC, id DESC);
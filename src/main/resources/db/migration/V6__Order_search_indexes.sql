@@ -0,0 +1,15 @@
+-- Polaroid Glossy Database Migration V6
+-- Trigram indexes for admin order search
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- =============================================
+-- ORDER SEARCH INDEXES
+-- =============================================
+-- Search matches lower(column) LIKE '%term%'; trigram GIN indexes serve both
+-- prefix and substring patterns, and an OR across columns becomes a BitmapOr.
+CREATE INDEX idx_orders_order_number_trgm ON orders USING GIN (lower(order_number) gin_trgm_ops);
+CREATE INDEX idx_orders_customer_name_trgm ON orders USING GIN (lower(customer_name) gin_trgm_ops);
+CREATE INDEX idx_orders_customer_email_trgm ON orders USING GIN (lower(customer_email) gin_trgm_ops);
+CREATE INDEX idx_orders_customer_phone_trgm ON orders USING GIN (lower(customer_phone) gin_trgm_ops);
+CREATE INDEX idx_orders_tracking_number_trgm ON orders USING GIN (lower(tracking_number) gin_trgm_ops);
@@ -0,0 +1,12 @@
+-- Polaroid Glossy Database Migration V7
+-- Trigram indexes for admin user search
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- =============================================
+-- USER SEARCH INDEXES
+-- =============================================
+-- User search matches LOWER(name) / LOWER(email) LIKE '%term%'; these serve
+-- both the substring filter and the prefix ranking without a sequential scan.
+CREATE INDEX idx_users_name_trgm ON users USING GIN (lower(name) gin_trgm_ops);
+CREATE INDEX idx_users_email_trgm ON users USING GIN (lower(email) gin_trgm_ops);
@@ -0,0 +1,11 @@
+-- Polaroid Glossy Database Migration V8
+-- Per-user token version for revoking stateless JWTs
+
+-- =============================================
+-- USERS TOKEN VERSION
+-- =============================================
+-- Tokens carry the version they were issued at; bumping it (role change,
+-- deactivation) invalidates every outstanding token for that user.
+ALTER TABLE users ADD COLUMN token_version BIGINT NOT NULL DEFAULT 0;
+
+CREATE INDEX idx_users_updated_at ON users(updated_at);
@@ -0,0 +1,27 @@
+-- Polaroid Glossy Database Migration V9
+-- Outbox for asynchronous ToyyibPay bill creation
+
+-- =============================================
+-- PAYMENT REQUESTS TABLE
+-- =============================================
+CREATE TABLE payment_requests (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    order_id UUID NOT NULL REFERENCES orders(id) ON DELETE CASCADE,
+    order_number VARCHAR(50) NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    bill_code VARCHAR(100),
+    last_error TEXT,
+    
+    created_at TIMESTAMPTZ DEFAULT NOW(),
+    updated_at TIMESTAMPTZ DEFAULT NOW(),
+    created_by VARCHAR(255),
+    updated_by VARCHAR(255)
+);
+
+-- At most one in-flight request per order
+CREATE UNIQUE INDEX idx_payment_requests_active_order ON payment_requests(order_id)
+    WHERE status IN ('PENDING', 'PROCESSING');
+CREATE INDEX idx_payment_requests_due ON payment_requests(status, next_attempt_at);
+CREATE INDEX idx_payment_requests_order_created ON payment_requests(order_id, created_at DESC);
@@ -0,0 +1,67 @@
+package com.polaroid.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UploadSizeLimitFilterTest {
+    
+    private final UploadSizeLimitFilter filter = new UploadSizeLimitFilter(DataSize.ofMegabytes(10));
+    
+    @Test
+    void rejectsOversizedSingleUpload() throws Exception {
+        MockHttpServletResponse response = run(upload("/api/files/upload", DataSize.ofMegabytes(11).toBytes()));
+        
+        assertThat(response.getStatus()).isEqualTo(413);
+    }
+    
+    @Test
+    void acceptsSingleUploadWithinLimit() throws Exception {
+        MockHttpServletResponse response = run(upload("/api/files/upload", DataSize.ofMegabytes(9).toBytes()));
+        
+        assertThat(response.getStatus()).isEqualTo(200);
+    }
+    
+    @Test
+    void leavesBatchUploadToTheServletLimit() throws Exception {
+        MockHttpServletResponse response = run(upload(
+                UploadSizeLimitFilter.BATCH_UPLOAD_PATH, DataSize.ofMegabytes(11).toBytes()));
+        
+        assertThat(response.getStatus()).isEqualTo(200);
+    }
+    
+    @Test
+    void requiresContentLengthOutsideTheBatchEndpoint() throws Exception {
+        MockHttpServletRequest request = upload("/api/files/upload", -1);
+        
+        assertThat(run(request).getStatus()).isEqualTo(411);
+    }
+    
+    @Test
+    void ignoresNonMultipartRequests() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/orders");
+        request.setContentType("application/json");
+        request.setContent(new byte[(int) DataSize.ofMegabytes(11).toBytes()]);
+        
+        assertThat(run(request).getStatus()).isEqualTo(200);
+    }
+    
+    private MockHttpServletRequest upload(String path, long contentLength) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.setContentType("multipart/form-data; boundary=test");
+        if (contentLength >= 0) {
+            request.setContent(new byte[(int) contentLength]);
+        }
+        return request;
+    }
+    
+    private MockHttpServletResponse run(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
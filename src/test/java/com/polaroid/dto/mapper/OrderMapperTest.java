@@ -0,0 +1,64 @@
+package com.polaroid.dto.mapper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.polaroid.dto.response.OrderItemResponse;
+import com.polaroid.model.Order;
+import com.polaroid.model.OrderItem;
+import com.polaroid.service.ThumbnailService;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OrderMapperTest {
+    
+    private static final String BASE = "https://x.supabase.co/storage/v1/object/public/polaroid-glossy/";
+    
+    private final ThumbnailService thumbnailService = mock(ThumbnailService.class);
+    private final OrderMapper mapper = new OrderMapper(new ObjectMapper(), thumbnailService);
+    
+    @Test
+    void usesPreviewOnlyWhereItExists() throws Exception {
+        when(thumbnailService.findReady(anyCollection())).thenReturn(Set.of("original/o1/a.jpg"));
+        
+        OrderItemResponse item = mapOne("[\"" + BASE + "original/o1/a.jpg\",\"" + BASE + "original/o1/b.jpg\"]");
+        
+        List<String> thumbnails = List.of(new ObjectMapper().readValue(item.getThumbnails(), String[].class));
+        assertThat(thumbnails).containsExactly(BASE + "thumb/o1/a.jpg", BASE + "original/o1/b.jpg");
+    }
+    
+    @Test
+    void leavesForeignUrlsUntouched() throws Exception {
+        when(thumbnailService.findReady(anyCollection())).thenReturn(Set.of());
+        
+        OrderItemResponse item = mapOne("[\"image1.jpg\"]");
+        
+        assertThat(new ObjectMapper().readValue(item.getThumbnails(), String[].class)).containsExactly("image1.jpg");
+    }
+    
+    private OrderItemResponse mapOne(String images) {
+        OrderItem item = OrderItem.builder()
+                .id(UUID.randomUUID())
+                .sizeId("4R")
+                .sizeName("4R")
+                .quantity(1)
+                .unitPrice(BigDecimal.ONE)
+                .totalPrice(BigDecimal.ONE)
+                .images(images)
+                .build();
+        Order order = Order.builder()
+                .id(UUID.randomUUID())
+                .orderNumber("PG-1")
+                .items(List.of(item))
+                .statusHistory(List.of())
+                .build();
+        return mapper.toDto(order).getItems().get(0);
+    }
+}
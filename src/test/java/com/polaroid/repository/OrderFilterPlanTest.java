@@ -0,0 +1,125 @@
+package com.polaroid.repository;
+
+import com.polaroid.dto.projection.OrderSummary;
+import com.polaroid.model.Order;
+import com.polaroid.model.enums.OrderStatus;
+import com.polaroid.model.enums.PaymentStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * EXPLAINs the SQL each common admin filter combination produces against a
+ * large seeded order table and checks that Postgres answers it from the index
+ * meant for it. Set {@code PLAN_TEST_DATABASE_URL} to run it.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnabledIfEnvironmentVariable(named = SeededPostgres.URL_VARIABLE, matches = "jdbc:postgresql:.+")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderFilterPlanTest {
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        SeededPostgres.register(registry);
+    }
+
+    @BeforeEach
+    void seed() {
+        SeededPostgres.seed(jdbcTemplate);
+    }
+
+    /**
+     * Each case lists the values Hibernate binds, in statement order: the
+     * supplied filters, then the page offset and size. For a value shared by
+     * many orders, walking idx_orders_created_at newest-first and filtering
+     * fills a 20-row page sooner than the composite index, so either is
+     * accepted there.
+     */
+    static Stream<Arguments> filters() {
+        LocalDateTime to = LocalDateTime.now();
+        LocalDateTime from = to.minusDays(7);
+        UUID userId = UUID.randomUUID();
+        String search = SearchPatterns.contains("MY12345");
+        return Stream.of(
+                Arguments.of("status",
+                        OrderSpecifications.withFilters(null, OrderStatus.PENDING, null, null, null, null),
+                        List.of("PENDING", 0, 20),
+                        List.of("idx_orders_status_created_id", "idx_orders_created_at")),
+                Arguments.of("payment status",
+                        OrderSpecifications.withFilters(null, null, PaymentStatus.PAID, null, null, null),
+                        List.of("PAID", 0, 20),
+                        List.of("idx_orders_payment_created_id", "idx_orders_created_at")),
+                Arguments.of("customer",
+                        OrderSpecifications.withFilters(userId, null, null, null, null, null),
+                        List.of(userId, 0, 20),
+                        List.of("idx_orders_user_created_id")),
+                Arguments.of("status and payment status",
+                        OrderSpecifications.withFilters(null, OrderStatus.PROCESSING, PaymentStatus.PAID, null, null, null),
+                        List.of("PROCESSING", "PAID", 0, 20),
+                        List.of("idx_orders_status_created_id", "idx_orders_payment_created_id", "idx_orders_status_payment",
+                                "idx_orders_created_at")),
+                Arguments.of("date range",
+                        OrderSpecifications.withFilters(null, null, null, null, from, to),
+                        List.of(from, to, 0, 20),
+                        List.of("idx_orders_created_at", "idx_orders_created_status")),
+                Arguments.of("status and date range",
+                        OrderSpecifications.withFilters(null, OrderStatus.DELIVERED, null, null, from, to),
+                        List.of("DELIVERED", from, to, 0, 20),
+                        List.of("idx_orders_status_created_id", "idx_orders_created_status", "idx_orders_created_at")),
+                Arguments.of("customer and status",
+                        OrderSpecifications.withFilters(userId, OrderStatus.PENDING, null, null, null, null),
+                        List.of(userId, "PENDING", 0, 20),
+                        List.of("idx_orders_user_created_id", "idx_orders_user_status")),
+                Arguments.of("search",
+                        OrderSpecifications.matchesSearch("MY12345"),
+                        List.of(search, search, search, search, search, 0, 20),
+                        List.of("_trgm")));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("filters")
+    void filterUsesAnIndex(String name, Specification<Order> spec, List<?> values, List<String> expectedIndexes) {
+        RecordingStatementInspector.clear();
+        orderRepository.findBy(spec, query -> query
+                .as(OrderSummary.class)
+                .sortBy(NEWEST_FIRST)
+                .page(PageRequest.of(0, 20)));
+
+        String select = RecordingStatementInspector.statements().get(0);
+        String plan = SeededPostgres.explain(jdbcTemplate, select, values);
+
+        assertThat(plan)
+                .as("plan for %s:%n%s", name, plan)
+                .doesNotContain("Seq Scan on orders")
+                .containsAnyOf(expectedIndexes.toArray(String[]::new));
+    }
+}
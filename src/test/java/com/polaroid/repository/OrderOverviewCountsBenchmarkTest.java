@@ -0,0 +1,133 @@
+package com.polaroid.repository;
+
+import com.polaroid.dto.projection.OrderOverviewCounts;
+import com.polaroid.model.enums.OrderStatus;
+import com.polaroid.model.enums.PaymentStatus;
+import org.junit.jupiter.api.BeforeEach;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the single-pass overview aggregate against the eight separate count
+ * queries it replaced on 1,000 seeded orders. With {@code -Dbenchmark=true} it
+ * seeds 20,000 and also compares latency; pass
+ * {@code -Dbenchmark.orders=1000000} to reproduce the numbers at scale.
+ */
+@Slf4j
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class OrderOverviewCountsBenchmarkTest {
+
+    private static final int ORDERS = Integer.getInteger("benchmark.orders", Boolean.getBoolean("benchmark") ? 20_000 : 1_000);
+    private static final int ROUNDS = Integer.getInteger("benchmark.rounds", 5);
+    private static final int BATCH_SIZE = 5_000;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private LocalDateTime from;
+    private LocalDateTime to;
+
+    @BeforeEach
+    void seed() {
+        LocalDateTime now = LocalDateTime.now();
+        from = now.minusDays(30);
+        to = now;
+
+        OrderStatus[] statuses = OrderStatus.values();
+        PaymentStatus[] paymentStatuses = PaymentStatus.values();
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < ORDERS; i++) {
+            batch.add(new Object[] {
+                    UUID.randomUUID(),
+                    "BENCH-" + i,
+                    "Customer " + i,
+                    "customer" + i + "@example.com",
+                    statuses[i % statuses.length].name(),
+                    paymentStatuses[(i / 3) % paymentStatuses.length].name(),
+                    BigDecimal.valueOf(10 + i % 90),
+                    Timestamp.valueOf(now.minusDays(i % 90))
+            });
+            if (batch.size() == BATCH_SIZE) {
+                insert(batch);
+                batch.clear();
+            }
+        }
+        insert(batch);
+    }
+
+    @Test
+    void singleAggregateMatchesSeparateQueries() {
+        OrderOverviewCounts counts = orderRepository.getOverviewCounts(from, to);
+
+        assertThat(counts.getTotalOrders()).isEqualTo(ORDERS);
+        assertThat(counts.getPendingOrders()).isEqualTo(orderRepository.countByStatus(OrderStatus.PENDING));
+        assertThat(counts.getProcessingOrders()).isEqualTo(orderRepository.countByStatus(OrderStatus.PROCESSING));
+        assertThat(counts.getDeliveredOrders()).isEqualTo(orderRepository.countByStatus(OrderStatus.DELIVERED));
+        assertThat(counts.getCancelledOrders()).isEqualTo(orderRepository.countByStatus(OrderStatus.CANCELLED));
+        assertThat(counts.getPaidOrders()).isEqualTo(orderRepository.countByPaymentStatus(PaymentStatus.PAID));
+        assertThat(counts.getPendingPayments()).isEqualTo(orderRepository.countByPaymentStatus(PaymentStatus.PENDING));
+        assertThat(counts.getTotalRevenue())
+                .isEqualByComparingTo(orderRepository.sumTotalByPaymentStatusAndDateRange(PaymentStatus.PAID, from, to));
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void singleAggregateIsFasterThanSeparateQueries() {
+        long single = bestOf(() -> orderRepository.getOverviewCounts(from, to));
+        long separate = bestOf(() -> List.of(
+                orderRepository.count(),
+                orderRepository.countByStatus(OrderStatus.PENDING),
+                orderRepository.countByStatus(OrderStatus.PROCESSING),
+                orderRepository.countByStatus(OrderStatus.DELIVERED),
+                orderRepository.countByStatus(OrderStatus.CANCELLED),
+                orderRepository.countByPaymentStatus(PaymentStatus.PAID),
+                orderRepository.countByPaymentStatus(PaymentStatus.PENDING),
+                orderRepository.sumTotalByPaymentStatusAndDateRange(PaymentStatus.PAID, from, to)));
+
+        log.info("Overview counts over {} orders: single aggregate {} ms, eight queries {} ms",
+                ORDERS, single / 1_000_000, separate / 1_000_000);
+        assertThat(single).isLessThan(separate);
+    }
+
+    private long bestOf(Supplier<?> query) {
+        query.get();
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < ROUNDS; i++) {
+            long start = System.nanoTime();
+            query.get();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    private void insert(List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO orders (id, order_number, customer_name, customer_email, status, payment_status, total, created_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                rows);
+    }
+}
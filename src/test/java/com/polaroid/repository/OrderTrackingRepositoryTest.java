@@ -0,0 +1,116 @@
+package com.polaroid.repository;
+
+import com.polaroid.config.JpaAuditingConfig;
+import com.polaroid.model.Order;
+import com.polaroid.model.OrderStatusHistory;
+import com.polaroid.model.enums.OrderStatus;
+import com.polaroid.repository.OrderTrackingRepository.TrackingUpdate;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({OrderTrackingRepository.class, JpaAuditingConfig.class})
+class OrderTrackingRepositoryTest {
+
+    private static final String PACKER = "packer@example.com";
+
+    @Autowired
+    private OrderTrackingRepository orderTrackingRepository;
+
+    @Autowired
+    private OrderStatusHistoryRepository statusHistoryRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void marksOnlyPendingAndProcessingOrdersPosted() {
+        Order pending = order(OrderStatus.PENDING);
+        Order processing = order(OrderStatus.PROCESSING);
+        Order delivered = order(OrderStatus.DELIVERED);
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+
+        List<UUID> posted = orderTrackingRepository.markPosted(List.of(
+                new TrackingUpdate(pending.getId(), "JT1"),
+                new TrackingUpdate(processing.getId(), "JT2"),
+                new TrackingUpdate(delivered.getId(), "JT3")), now, PACKER);
+
+        assertThat(posted).containsExactly(pending.getId(), processing.getId());
+        Order reloaded = reload(pending);
+        assertThat(reloaded.getStatus()).isEqualTo(OrderStatus.POSTED);
+        assertThat(reloaded.getTrackingNumber()).isEqualTo("JT1");
+        assertThat(reloaded.getShippedAt()).isEqualTo(now);
+        assertThat(reloaded.getUpdatedBy()).isEqualTo(PACKER);
+        assertThat(reload(delivered).getStatus()).isEqualTo(OrderStatus.DELIVERED);
+        assertThat(reload(delivered).getTrackingNumber()).isNull();
+    }
+
+    @Test
+    void updatesTrackingNumbersWithoutTouchingStatus() {
+        Order onDelivery = order(OrderStatus.ON_DELIVERY);
+        Order cancelled = order(OrderStatus.CANCELLED);
+
+        boolean[] matched = orderTrackingRepository.updateTrackingNumbers(List.of(
+                new TrackingUpdate(onDelivery.getId(), "JT-NEW"),
+                new TrackingUpdate(cancelled.getId(), "JT-CANCELLED"),
+                new TrackingUpdate(UUID.randomUUID(), "JT-MISSING")), LocalDateTime.now(), PACKER);
+
+        assertThat(matched).containsExactly(true, false, false);
+        assertThat(reload(cancelled).getTrackingNumber()).isNull();
+        Order reloaded = reload(onDelivery);
+        assertThat(reloaded.getTrackingNumber()).isEqualTo("JT-NEW");
+        assertThat(reloaded.getStatus()).isEqualTo(OrderStatus.ON_DELIVERY);
+        assertThat(reloaded.getShippedAt()).isNull();
+    }
+
+    @Test
+    void insertsOneHistoryRowPerOrder() {
+        Order first = order(OrderStatus.POSTED);
+        Order second = order(OrderStatus.POSTED);
+
+        orderTrackingRepository.insertStatusHistory(
+                List.of(first.getId(), second.getId()), OrderStatus.POSTED.name(), "Order posted", LocalDateTime.now(), PACKER);
+
+        assertThat(statusHistoryRepository.findByOrderIdOrderByCreatedAtDesc(first.getId()))
+                .singleElement()
+                .satisfies(history -> {
+                    assertThat(history.getStatus()).isEqualTo(OrderStatus.POSTED);
+                    assertThat(history.getMessage()).isEqualTo("Order posted");
+                    assertThat(history.getCreatedBy()).isEqualTo(PACKER);
+                });
+        assertThat(statusHistoryRepository.findByOrderIdOrderByCreatedAtDesc(second.getId()))
+                .extracting(OrderStatusHistory::getStatus)
+                .containsExactly(OrderStatus.POSTED);
+    }
+
+    private Order order(OrderStatus status) {
+        Order order = entityManager.persistAndFlush(Order.builder()
+                .orderNumber("PG-TRACK-" + UUID.randomUUID().toString().substring(0, 8))
+                .customerName("Customer")
+                .customerEmail("customer@example.com")
+                .total(BigDecimal.TEN)
+                .status(status)
+                .build());
+        entityManager.clear();
+        return order;
+    }
+
+    private Order reload(Order order) {
+        entityManager.clear();
+        return entityManager.find(Order.class, order.getId());
+    }
+}
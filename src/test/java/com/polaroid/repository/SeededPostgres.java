@@ -0,0 +1,145 @@
+package com.polaroid.repository;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Shared setup for tests that need a real, migrated Postgres with large
+ * order and user tables. They run only when {@code PLAN_TEST_DATABASE_URL} points at a
+ * disposable Postgres database; Flyway migrates it on first use and the
+ * seeded rows are kept between runs.
+ */
+final class SeededPostgres {
+
+    static final String URL_VARIABLE = "PLAN_TEST_DATABASE_URL";
+
+    static final int ORDERS = Integer.getInteger("plan.orders", 200_000);
+
+    static final int USERS = Integer.getInteger("plan.users", 200_000);
+
+    private static final String ORDER_PREFIX = "PLAN-";
+    private static final String USER_PREFIX = "bench-";
+    private static final Pattern PARAMETER = Pattern.compile("\\?");
+
+    private SeededPostgres() {
+    }
+
+    static void register(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getenv(URL_VARIABLE));
+        registry.add("spring.datasource.username", () -> env("PLAN_TEST_DATABASE_USERNAME", "postgres"));
+        registry.add("spring.datasource.password", () -> env("PLAN_TEST_DATABASE_PASSWORD", "password"));
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("spring.jpa.show-sql", () -> "false");
+        registry.add("spring.jpa.properties.hibernate.session_factory.statement_inspector",
+                RecordingStatementInspector.class::getName);
+    }
+
+    /**
+     * Seeds {@link #ORDERS} orders spread over 1,000 customers, every status
+     * and payment status, and a year of creation times, then refreshes the
+     * planner statistics.
+     */
+    static void seed(JdbcTemplate jdbcTemplate) {
+        Integer seeded = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM orders WHERE order_number LIKE '" + ORDER_PREFIX + "%'", Integer.class);
+        if (seeded != null && seeded >= ORDERS) {
+            return;
+        }
+
+        jdbcTemplate.update("DELETE FROM orders WHERE order_number LIKE '" + ORDER_PREFIX + "%'");
+        jdbcTemplate.update(
+                "INSERT INTO users (email, password_hash, name) " +
+                "SELECT 'plan-user-' || g || '@example.com', 'x', 'Plan customer ' || g " +
+                "FROM generate_series(1, 1000) g ON CONFLICT (email) DO NOTHING");
+        jdbcTemplate.update(
+                "WITH customers AS (" +
+                "  SELECT array_agg(id ORDER BY email) AS ids FROM users WHERE email LIKE 'plan-user-%'" +
+                ") " +
+                "INSERT INTO orders (order_number, user_id, customer_name, customer_email, customer_phone, " +
+                "  customer_state, status, payment_status, subtotal, total, tracking_number, created_at) " +
+                "SELECT '" + ORDER_PREFIX + "' || g, customers.ids[1 + g % 1000], " +
+                "  'Customer ' || md5(g::text), 'c' || g || '@example.com', '01' || lpad((g % 100000000)::text, 8, '0'), " +
+                "  (ARRAY['W','J','K','P','S'])[1 + g % 5], " +
+                "  (ARRAY['PENDING','PROCESSING','POSTED','ON_DELIVERY','DELIVERED','CANCELLED','REFUNDED'])[1 + g % 7], " +
+                "  (ARRAY['PENDING','PAID','FAILED'])[1 + (g / 7) % 3], " +
+                "  10 + g % 90, 10 + g % 90, 'MY' || g, " +
+                "  now() - (g % 525600) * interval '1 minute' " +
+                "FROM generate_series(1, ?) g, customers",
+                ORDERS);
+        jdbcTemplate.execute("ANALYZE users");
+        jdbcTemplate.execute("ANALYZE orders");
+    }
+
+    /**
+     * Seeds {@link #USERS} customers with random-looking names and emails,
+     * then refreshes the planner statistics.
+     */
+    static void seedUsers(JdbcTemplate jdbcTemplate) {
+        Integer seeded = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM users WHERE email LIKE '" + USER_PREFIX + "%'", Integer.class);
+        if (seeded != null && seeded >= USERS) {
+            return;
+        }
+
+        jdbcTemplate.update("DELETE FROM users WHERE email LIKE '" + USER_PREFIX + "%'");
+        jdbcTemplate.update(
+                "INSERT INTO users (email, password_hash, name, created_at) " +
+                "SELECT '" + USER_PREFIX + "' || md5(g::text) || '@example.com', 'x', " +
+                "  initcap(substr(md5('n' || g), 1, 8)) || ' ' || initcap(substr(md5('s' || g), 1, 10)), " +
+                "  now() - (g % 100000) * interval '1 minute' " +
+                "FROM generate_series(1, ?) g",
+                USERS);
+        jdbcTemplate.execute("ANALYZE users");
+    }
+
+    /**
+     * Plan of a statement exactly as Hibernate sent it, with the given values
+     * bound in order. Each value is passed as a quoted literal and typed by the
+     * column it is compared with, as a driver-bound parameter would be.
+     */
+    static String explain(JdbcTemplate jdbcTemplate, String sql, List<?> values) {
+        Matcher matcher = PARAMETER.matcher(sql);
+        StringBuilder numbered = new StringBuilder();
+        int parameters = 0;
+        while (matcher.find()) {
+            matcher.appendReplacement(numbered, "\\$" + (++parameters));
+        }
+        matcher.appendTail(numbered);
+        if (parameters != values.size()) {
+            throw new IllegalArgumentException(
+                    "Statement takes " + parameters + " parameters but " + values.size() + " were given: " + sql);
+        }
+        String arguments = values.isEmpty() ? "" : values.stream()
+                .map(value -> "'" + value.toString().replace("'", "''") + "'")
+                .collect(Collectors.joining(",", "(", ")"));
+
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("PREPARE plan_probe AS " + numbered);
+                try (ResultSet plan = statement.executeQuery("EXPLAIN EXECUTE plan_probe" + arguments)) {
+                    StringBuilder lines = new StringBuilder();
+                    while (plan.next()) {
+                        lines.append(plan.getString(1)).append('\n');
+                    }
+                    return lines.toString();
+                } finally {
+                    statement.execute("DEALLOCATE plan_probe");
+                }
+            }
+        });
+    }
+
+    private static String env(String name, String fallback) {
+        String value = System.getenv(name);
+        return value != null ? value : fallback;
+    }
+}
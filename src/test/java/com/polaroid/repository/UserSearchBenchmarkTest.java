@@ -0,0 +1,124 @@
+package com.polaroid.repository;
+
+import com.polaroid.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the ranked, trigram-indexed user search with the
+ * ContainingIgnoreCase query it replaced on a large seeded users table. Set
+ * {@code PLAN_TEST_DATABASE_URL} to run it and {@code -Dplan.users=1000000}
+ * for the full-size run.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnabledIfEnvironmentVariable(named = SeededPostgres.URL_VARIABLE, matches = "jdbc:postgresql:.+")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserSearchBenchmarkTest {
+
+    private static final int ROUNDS = Integer.getInteger("benchmark.rounds", 5);
+    private static final PageRequest FIRST_PAGE = PageRequest.of(0, 20);
+
+    /** What findByNameContainingIgnoreCaseOrEmailContainingIgnoreCase compiled to. */
+    private static final String LEGACY_SEARCH =
+            "SELECT * FROM users WHERE upper(name) LIKE upper(?) ESCAPE '\\' " +
+            "OR upper(email) LIKE upper(?) ESCAPE '\\' OFFSET 0 ROWS FETCH FIRST 20 ROWS ONLY";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String term;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        SeededPostgres.register(registry);
+    }
+
+    @BeforeEach
+    void seed() {
+        SeededPostgres.seedUsers(jdbcTemplate);
+        // Eight characters of one seeded email: matches a handful of users.
+        term = jdbcTemplate.queryForObject("SELECT substr(md5('777'), 9, 8)", String.class);
+    }
+
+    @Test
+    void rankedSearchIsServedFromTheTrigramIndexes() {
+        RecordingStatementInspector.clear();
+        search(term);
+        String select = RecordingStatementInspector.statements().get(0);
+        String pattern = SearchPatterns.contains(term);
+        String prefix = SearchPatterns.startsWith(term);
+        List<Object> values = new ArrayList<>(List.of(pattern, pattern, SearchPatterns.normalize(term), prefix, prefix));
+        values.add(FIRST_PAGE.getPageSize());
+
+        String plan = SeededPostgres.explain(jdbcTemplate, select, values);
+        String legacyPlan = SeededPostgres.explain(jdbcTemplate, LEGACY_SEARCH, List.of(pattern, pattern));
+
+        assertThat(plan).as(plan).contains("idx_users_email_trgm").doesNotContain("Seq Scan on users");
+        assertThat(legacyPlan).as(legacyPlan).contains("Seq Scan on users");
+    }
+
+    @Test
+    void ranksExactThenPrefixThenSubstringMatches() {
+        jdbcTemplate.update("DELETE FROM users WHERE email LIKE '%ranktarget@example.com%'");
+        jdbcTemplate.update(
+                "INSERT INTO users (email, password_hash, name, created_at) VALUES " +
+                "('ranktarget@example.com', 'x', 'Exact', now() - interval '3 days'), " +
+                "('ranktarget@example.com.my', 'x', 'Prefix', now() - interval '2 days'), " +
+                "('old-ranktarget@example.com', 'x', 'Substring', now() - interval '1 day')");
+
+        Page<User> page = search("RankTarget@example.com");
+
+        assertThat(page.getContent()).extracting(User::getName).containsExactly("Exact", "Prefix", "Substring");
+    }
+
+    @Test
+    void reportsLatencyAgainstContainingIgnoreCase() {
+        String pattern = SearchPatterns.contains(term);
+        long ranked = bestOf(() -> search(term));
+        long legacy = bestOf(() -> jdbcTemplate.queryForList(LEGACY_SEARCH, pattern, pattern));
+
+        System.out.printf("User search over %d users: ranked trigram %.2f ms, ContainingIgnoreCase %.2f ms%n",
+                SeededPostgres.USERS, ranked / 1_000_000.0, legacy / 1_000_000.0);
+        assertThat(search(term).getContent()).isNotEmpty();
+    }
+
+    private Page<User> search(String query) {
+        return userRepository.searchRanked(
+                SearchPatterns.normalize(query),
+                SearchPatterns.startsWith(query),
+                SearchPatterns.contains(query),
+                FIRST_PAGE);
+    }
+
+    private long bestOf(Supplier<?> query) {
+        query.get();
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < ROUNDS; i++) {
+            long start = System.nanoTime();
+            query.get();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+}
@@ -0,0 +1,114 @@
+package com.polaroid.security;
+
+import com.polaroid.repository.UserRepository;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Per-request overhead of JwtAuthenticationFilter with the verified-claims
+ * cache off and on, next to the old path that built a parser and verified the
+ * token twice. Not part of the test run; after {@code mvn test-compile} run
+ * {@link #main} with the test classpath, or
+ * {@code java -cp <test classpath> org.openjdk.jmh.Main JwtFilterBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-minimum-32-characters-long";
+    private static final String EMAIL = "customer@example.com";
+    private static final FilterChain CHAIN = (request, response) -> { };
+
+    private SecretKey key;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        token = Jwts.builder()
+                .subject(EMAIL)
+                .claim("role", "CUSTOMER")
+                .claim("ver", 0L)
+                .expiration(new Date(System.currentTimeMillis() + 3_600_000))
+                .signWith(key)
+                .compact();
+    }
+
+    @State(Scope.Benchmark)
+    public static class FilterState {
+
+        @Param({"0", "10000"})
+        public int claimsCacheSize;
+
+        private JwtAuthenticationFilter filter;
+
+        @Setup
+        public void setUp() {
+            JwtTokenProvider tokenProvider = new JwtTokenProvider(SECRET, 3_600_000, 86_400_000, claimsCacheSize);
+            UserRepository userRepository = mock(UserRepository.class);
+            when(userRepository.findTokenVersionByEmail(anyString())).thenReturn(Optional.of(0L));
+
+            filter = new JwtAuthenticationFilter(tokenProvider, null, new TokenVersionStore(userRepository, Duration.ofMinutes(10), 10_000));
+            ReflectionTestUtils.setField(filter, "stateless", true);
+        }
+    }
+
+    @Benchmark
+    public Object filterRequest(FilterState state) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/orders/my");
+        request.addHeader("Authorization", "Bearer " + token);
+        state.filter.doFilterInternal(request, new MockHttpServletResponse(), CHAIN);
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    /** What the filter did before: validate, then parse again for the subject. */
+    @Benchmark
+    public void legacyDoubleVerify(Blackhole blackhole) {
+        blackhole.consume(Jwts.parser().verifyWith(key).build().parseSignedClaims(token));
+        blackhole.consume(Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload().getSubject());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtFilterBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
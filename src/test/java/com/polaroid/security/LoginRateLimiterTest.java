@@ -0,0 +1,67 @@
+package com.polaroid.security;
+
+import com.polaroid.exception.TooManyRequestsException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoginRateLimiterTest {
+
+    private static final String VICTIM = "victim@example.com";
+
+    private final LoginRateLimiter limiter = new LoginRateLimiter(1000, 3, Duration.ofMinutes(1));
+
+    @Test
+    void blocksAnIpAfterRepeatedFailuresForOneEmail() {
+        fail("10.0.0.1", VICTIM, 3);
+
+        assertThatThrownBy(() -> limiter.checkLogin("10.0.0.1", "Victim@Example.com"))
+                .isInstanceOf(TooManyRequestsException.class);
+    }
+
+    @Test
+    void failuresFromOtherIpsDoNotLockTheOwnerOut() {
+        fail("10.0.0.1", VICTIM, 10);
+        fail("10.0.0.2", VICTIM, 10);
+
+        assertThatCode(() -> limiter.checkLogin("192.168.1.5", VICTIM)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void successfulLoginsAreNotCountedAgainstTheEmail() {
+        for (int i = 0; i < 10; i++) {
+            limiter.checkLogin("10.0.0.1", VICTIM);
+            limiter.recordSuccess("10.0.0.1", VICTIM);
+        }
+
+        assertThatCode(() -> limiter.checkLogin("10.0.0.1", VICTIM)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void successClearsEarlierFailures() {
+        fail("10.0.0.1", VICTIM, 2);
+        limiter.recordSuccess("10.0.0.1", VICTIM);
+        fail("10.0.0.1", VICTIM, 2);
+
+        assertThatCode(() -> limiter.checkLogin("10.0.0.1", VICTIM)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void everyAttemptCountsAgainstTheIp() {
+        LoginRateLimiter strict = new LoginRateLimiter(2, 3, Duration.ofMinutes(1));
+        strict.checkLogin("10.0.0.1", "a@example.com");
+        strict.checkLogin("10.0.0.1", "b@example.com");
+
+        assertThatThrownBy(() -> strict.checkLogin("10.0.0.1", "c@example.com"))
+                .isInstanceOf(TooManyRequestsException.class);
+    }
+
+    private void fail(String ip, String email, int times) {
+        for (int i = 0; i < times; i++) {
+            limiter.recordFailure(ip, email);
+        }
+    }
+}
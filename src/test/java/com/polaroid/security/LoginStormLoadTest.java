@@ -0,0 +1,160 @@
+package com.polaroid.security;
+
+import com.polaroid.model.Order;
+import com.polaroid.model.User;
+import com.polaroid.model.enums.Role;
+import com.polaroid.repository.OrderRepository;
+import com.polaroid.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Floods /api/auth/login with bad passwords while timing GET
+ * /api/orders/{orderNumber}, and checks the order endpoint stays responsive
+ * because BCrypt work is confined to the password-hashing pool. Run with
+ * {@code -Dbenchmark=true}; tune with {@code -Dloadtest.login-threads} and
+ * {@code -Dloadtest.probes}.
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "security.login-rate-limit.per-ip=1000000",
+        "security.login-rate-limit.per-email=1000000",
+        "logging.level.com.polaroid=INFO",
+        "logging.level.org.springframework.security=INFO"
+})
+@ActiveProfiles("test")
+class LoginStormLoadTest {
+
+    private static final int LOGIN_THREADS = Integer.getInteger("loadtest.login-threads", 32);
+    private static final int PROBES = Integer.getInteger("loadtest.probes", 100);
+    private static final String EMAIL = "storm@example.com";
+    private static final String ORDER_NUMBER = "PG-STORM-1";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeEach
+    void seed() {
+        if (userRepository.findByEmail(EMAIL).isEmpty()) {
+            userRepository.save(User.builder()
+                    .email(EMAIL)
+                    .passwordHash(passwordEncoder.encode("correct-password"))
+                    .name("Storm")
+                    .role(Role.CUSTOMER)
+                    .isActive(true)
+                    .build());
+        }
+        if (orderRepository.findByOrderNumber(ORDER_NUMBER).isEmpty()) {
+            orderRepository.save(Order.builder()
+                    .orderNumber(ORDER_NUMBER)
+                    .customerName("Storm")
+                    .customerEmail(EMAIL)
+                    .total(BigDecimal.TEN)
+                    .build());
+        }
+    }
+
+    @Test
+    void orderLookupsStayFastDuringALoginStorm() throws Exception {
+        probe(PROBES / 5);
+        List<Long> baseline = probe(PROBES);
+
+        AtomicBoolean storming = new AtomicBoolean(true);
+        AtomicInteger logins = new AtomicInteger();
+        ExecutorService storm = Executors.newFixedThreadPool(LOGIN_THREADS);
+        for (int i = 0; i < LOGIN_THREADS; i++) {
+            storm.submit(() -> {
+                while (storming.get()) {
+                    send(HttpRequest.newBuilder(uri("/api/auth/login"))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(
+                                    "{\"email\":\"" + EMAIL + "\",\"password\":\"wrong-password\"}"))
+                            .build());
+                    logins.incrementAndGet();
+                }
+                return null;
+            });
+        }
+        List<Long> underStorm;
+        try {
+            Thread.sleep(500);
+            underStorm = probe(PROBES);
+        } finally {
+            storming.set(false);
+            storm.shutdown();
+            storm.awaitTermination(30, TimeUnit.SECONDS);
+        }
+
+        long baselineP95 = percentile(baseline, 95);
+        long stormP95 = percentile(underStorm, 95);
+        log.info("GET /api/orders/{orderNumber} p95: {} ms idle, {} ms with {} login threads ({} logins)",
+                baselineP95 / 1_000_000, stormP95 / 1_000_000, LOGIN_THREADS, logins.get());
+
+        assertThat(logins.get()).isPositive();
+        // Hashing still competes for CPU, but order requests must never queue
+        // behind it: a few hash-times at most, not the whole storm backlog.
+        assertThat(stormP95).isLessThan(baselineP95 * 5 + TimeUnit.MILLISECONDS.toNanos(500));
+    }
+
+    private List<Long> probe(int count) throws IOException, InterruptedException {
+        List<Long> latencies = new ArrayList<>(count);
+        HttpRequest request = HttpRequest.newBuilder(uri("/api/orders/" + ORDER_NUMBER)).GET().build();
+        for (int i = 0; i < count; i++) {
+            long start = System.nanoTime();
+            HttpResponse<String> response = send(request);
+            latencies.add(System.nanoTime() - start);
+            assertThat(response.statusCode()).isEqualTo(200);
+        }
+        return latencies;
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static long percentile(List<Long> values, int percentile) {
+        List<Long> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        return sorted.get(Math.min(sorted.size() - 1, sorted.size() * percentile / 100));
+    }
+}
@@ -0,0 +1,73 @@
+package com.polaroid.security;
+
+import com.polaroid.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TokenVersionStoreTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+
+    @Test
+    void capsTheNumberOfCachedUsers() {
+        TokenVersionStore store = new TokenVersionStore(userRepository, Duration.ofMinutes(10), 2);
+        when(userRepository.findTokenVersionByEmail(anyString())).thenReturn(Optional.of(0L));
+
+        for (int i = 0; i < 100; i++) {
+            store.currentVersion("user" + i + "@example.com");
+        }
+
+        assertThat(cached(store)).hasSizeLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void reloadsVersionsOnceTheyExpire() {
+        TokenVersionStore store = new TokenVersionStore(userRepository, Duration.ZERO, 10);
+        when(userRepository.findTokenVersionByEmail("a@example.com")).thenReturn(Optional.of(1L)).thenReturn(Optional.of(2L));
+
+        assertThat(store.currentVersion("a@example.com")).isEqualTo(1L);
+        assertThat(store.currentVersion("a@example.com")).isEqualTo(2L);
+        verify(userRepository, times(2)).findTokenVersionByEmail("a@example.com");
+    }
+
+    @Test
+    void servesCachedVersionsUntilPollingSeesAChange() {
+        TokenVersionStore store = new TokenVersionStore(userRepository, Duration.ofMinutes(10), 10);
+        when(userRepository.findTokenVersionByEmail("a@example.com")).thenReturn(Optional.of(1L));
+        when(userRepository.findTokenVersionsUpdatedSince(any()))
+                .thenReturn(List.<Object[]>of(new Object[]{"a@example.com", 5L}));
+
+        assertThat(store.currentVersion("a@example.com")).isEqualTo(1L);
+        assertThat(store.currentVersion("a@example.com")).isEqualTo(1L);
+        store.pollChanges();
+
+        assertThat(store.currentVersion("a@example.com")).isEqualTo(5L);
+        verify(userRepository, times(1)).findTokenVersionByEmail("a@example.com");
+    }
+
+    @Test
+    void doesNotCacheUnknownUsers() {
+        TokenVersionStore store = new TokenVersionStore(userRepository, Duration.ofMinutes(10), 10);
+        when(userRepository.findTokenVersionByEmail("ghost@example.com")).thenReturn(Optional.empty());
+
+        assertThat(store.currentVersion("ghost@example.com")).isNull();
+        assertThat(cached(store)).isEmpty();
+    }
+
+    private Map<?, ?> cached(TokenVersionStore store) {
+        return (Map<?, ?>) ReflectionTestUtils.getField(store, "versions");
+    }
+}
@@ -0,0 +1,44 @@
+package com.polaroid.service;
+
+import com.polaroid.repository.AnalyticsViewRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AnalyticsViewServiceTest {
+    
+    private final AnalyticsViewRepository repository = mock(AnalyticsViewRepository.class);
+    private final AnalyticsViewService service = new AnalyticsViewService(repository);
+    
+    @Test
+    void picksUpViewsCreatedAfterStartup() {
+        ReflectionTestUtils.setField(service, "enabled", true);
+        when(repository.viewsExist()).thenReturn(false);
+        
+        assertThat(service.isAvailable()).isFalse();
+        service.refreshViews();
+        verify(repository, never()).refreshViews();
+        
+        when(repository.viewsExist()).thenReturn(true);
+        when(repository.refreshViews()).thenReturn(true);
+        service.refreshViews();
+        
+        assertThat(service.isAvailable()).isTrue();
+        verify(repository).refreshViews();
+    }
+    
+    @Test
+    void staysLiveWhenDisabled() {
+        ReflectionTestUtils.setField(service, "enabled", false);
+        
+        service.refreshViews();
+        
+        assertThat(service.isAvailable()).isFalse();
+        verify(repository, never()).viewsExist();
+    }
+}
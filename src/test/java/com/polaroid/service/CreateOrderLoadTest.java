@@ -0,0 +1,131 @@
+package com.polaroid.service;
+
+import com.polaroid.config.JpaAuditingConfig;
+import com.polaroid.dto.mapper.OrderMapper;
+import com.polaroid.dto.mapper.PrintSizeMapper;
+import com.polaroid.dto.request.OrderRequest;
+import com.polaroid.model.PrintSize;
+import com.polaroid.repository.OrderRepository;
+import com.polaroid.repository.PrintSizeRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that createOrder sends line items as JDBC batches at 1, 10 and 100
+ * items per order, and measures its throughput when run with
+ * {@code -Dbenchmark=true}; pass {@code -Dloadtest.orders=1000} for a longer
+ * run.
+ */
+@Slf4j
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({OrderService.class, PrintSizeCatalog.class, PrintSizeMapper.class, JpaAuditingConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CreateOrderLoadTest {
+
+    private static final int ORDERS = Integer.getInteger("loadtest.orders", 50);
+    private static final int SIZES = 5;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PrintSizeRepository printSizeRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private OrderMapper orderMapper;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        if (printSizeRepository.count() == 0) {
+            printSizeRepository.saveAll(IntStream.range(0, SIZES)
+                    .mapToObj(i -> PrintSize.builder()
+                            .id("size-" + i)
+                            .name("Size " + i)
+                            .displayName("Size " + i)
+                            .price(BigDecimal.valueOf(5 + i))
+                            .build())
+                    .toList());
+        }
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @ParameterizedTest(name = "{0} items per order")
+    @ValueSource(ints = {1, 10, 100})
+    void sendsLineItemsInBatches(int itemsPerOrder) {
+        OrderRequest request = request(itemsPerOrder);
+
+        orderService.createOrder(request, null);
+        statistics.clear();
+        orderService.createOrder(request, null);
+
+        // The order insert, the history insert and at most one statement per item
+        // batch; saving rows one by one would grow with the item count.
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2 + (itemsPerOrder + 19) / 20);
+    }
+
+    @ParameterizedTest(name = "{0} items per order")
+    @ValueSource(ints = {1, 10, 100})
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void reportsThroughput(int itemsPerOrder) {
+        OrderRequest request = request(itemsPerOrder);
+        long ordersBefore = orderRepository.count();
+
+        orderService.createOrder(request, null);
+        long start = System.nanoTime();
+        for (int i = 0; i < ORDERS; i++) {
+            orderService.createOrder(request, null);
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        log.info("createOrder with {} items: {} orders/sec", itemsPerOrder, Math.round(ORDERS / seconds));
+        assertThat(orderRepository.count()).isEqualTo(ordersBefore + ORDERS + 1);
+    }
+
+    private OrderRequest request(int items) {
+        List<OrderRequest.OrderItemRequest> itemRequests = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            OrderRequest.OrderItemRequest item = new OrderRequest.OrderItemRequest();
+            item.setSizeId("size-" + (i % SIZES));
+            item.setQuantity(1 + i % 3);
+            item.setImageUrls(List.of("https://cdn.example.com/original/" + i + ".jpg"));
+            itemRequests.add(item);
+        }
+        OrderRequest request = new OrderRequest();
+        request.setCustomerName("Load Test");
+        request.setCustomerEmail("load@example.com");
+        request.setCustomerState("W");
+        request.setItems(itemRequests);
+        return request;
+    }
+}
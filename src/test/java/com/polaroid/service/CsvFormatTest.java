@@ -0,0 +1,41 @@
+package com.polaroid.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvFormatTest {
+
+    @Test
+    void splitsAndTrimsPlainFields() {
+        assertThat(CsvFormat.parseLine("PG-1, JT123 ,x")).containsExactly("PG-1", "JT123", "x");
+    }
+
+    @Test
+    void keepsCommasAndDoubledQuotesInsideQuotedFields() {
+        assertThat(CsvFormat.parseLine("\"PG-1\",\"Jalan 1, Shah Alam\",\"say \"\"hi\"\"\""))
+                .containsExactly("PG-1", "Jalan 1, Shah Alam", "say \"hi\"");
+    }
+
+    @Test
+    void keepsEmptyFields() {
+        assertThat(CsvFormat.parseLine(",JT123,")).containsExactly("", "JT123", "");
+        assertThat(CsvFormat.parseLine("")).containsExactly("");
+    }
+
+    @Test
+    void escapesOnlyWhenNeeded() {
+        assertThat(CsvFormat.escape("JT123")).isEqualTo("JT123");
+        assertThat(CsvFormat.escape(null)).isEmpty();
+        assertThat(CsvFormat.escape("a,b")).isEqualTo("\"a,b\"");
+        assertThat(CsvFormat.escape("say \"hi\"")).isEqualTo("\"say \"\"hi\"\"\"");
+        assertThat(CsvFormat.escape("two\nlines")).isEqualTo("\"two\nlines\"");
+    }
+
+    @Test
+    void escapedValuesParseBack() {
+        String value = "Order \"A\", urgent";
+
+        assertThat(CsvFormat.parseLine(CsvFormat.escape(value) + ",next")).containsExactly(value, "next");
+    }
+}
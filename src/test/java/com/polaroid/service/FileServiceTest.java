@@ -0,0 +1,63 @@
+package com.polaroid.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FileServiceTest {
+
+    @Test
+    void listsEveryPageOfAFolder() {
+        List<Integer> offsets = new ArrayList<>();
+        ThumbnailService thumbnailService = mock(ThumbnailService.class);
+        when(thumbnailService.findReady(any())).thenReturn(Set.of());
+        FileService fileService = new FileService(mock(WebClient.class), new ListingRestTemplate(250, offsets),
+                mock(ObjectFetchService.class), mock(ThreadPoolTaskExecutor.class), thumbnailService);
+        ReflectionTestUtils.setField(fileService, "supabaseUrl", "http://storage.test");
+        ReflectionTestUtils.setField(fileService, "bucketName", "bucket");
+        ReflectionTestUtils.setField(fileService, "listPageSize", 100);
+
+        List<Map<String, String>> files = fileService.listFiles("order-1");
+
+        assertThat(files).hasSize(250);
+        assertThat(files).extracting(file -> file.get("name")).doesNotHaveDuplicates();
+        assertThat(offsets).containsExactly(0, 100, 200);
+    }
+
+    /** Answers the storage list API from a folder of {@code size} objects. */
+    private static class ListingRestTemplate extends RestTemplate {
+        private final int size;
+        private final List<Integer> offsets;
+
+        ListingRestTemplate(int size, List<Integer> offsets) {
+            this.size = size;
+            this.offsets = offsets;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T postForObject(String url, Object request, Class<T> responseType, Object... uriVariables) {
+            Map<String, Object> body = (Map<String, Object>) ((HttpEntity<?>) request).getBody();
+            int limit = (Integer) body.get("limit");
+            int offset = (Integer) body.get("offset");
+            offsets.add(offset);
+            return (T) IntStream.range(offset, Math.min(size, offset + limit))
+                    .mapToObj(i -> Map.<String, Object>of("name", i + ".jpg"))
+                    .toList();
+        }
+    }
+}
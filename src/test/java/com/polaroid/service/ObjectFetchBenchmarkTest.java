@@ -0,0 +1,95 @@
+package com.polaroid.service;
+
+import com.polaroid.config.HttpClientConfig;
+import com.polaroid.dto.response.FileDownloadReport;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fetches 10, 100 and 500 objects from a local stub storage server, one at a
+ * time the way the old download loop did and with the configured per-request
+ * workers, through the pooled storage client. Run with
+ * {@code -Dbenchmark=true}; {@code -Dbenchmark.storage-latency-ms} sets the
+ * simulated round trip.
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ObjectFetchBenchmarkTest {
+
+    private static final long LATENCY_MS = Long.getLong("benchmark.storage-latency-ms", 20);
+    private static final int BODY_BYTES = 64 * 1024;
+    private static final int WORKERS = 8;
+
+    private StorageStub stub;
+    private ThreadPoolTaskExecutor executor;
+    private RestTemplate restTemplate;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        stub = new StorageStub().delay(LATENCY_MS).bodySize(BODY_BYTES);
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(32);
+        executor.setMaxPoolSize(32);
+        executor.initialize();
+
+        HttpClientConfig httpClientConfig = new HttpClientConfig();
+        ReflectionTestUtils.setField(httpClientConfig, "storageMaxConnections", 50);
+        ReflectionTestUtils.setField(httpClientConfig, "storageConnectTimeout", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(httpClientConfig, "storageReadTimeout", Duration.ofSeconds(60));
+        ReflectionTestUtils.setField(httpClientConfig, "storageAcquireTimeout", Duration.ofSeconds(10));
+        restTemplate = httpClientConfig.storageRestTemplate();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+        stub.close();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 100, 500})
+    void parallelFetchBeatsOneByOne(int files) throws IOException {
+        List<String> keys = IntStream.range(0, files).mapToObj(i -> "originals/1/" + i + ".jpg").toList();
+
+        long sequentialMs = timeFetch(service(1), keys);
+        long parallelMs = timeFetch(service(WORKERS), keys);
+
+        log.info("{} files at {} ms per object: one by one {} ms, {} workers {} ms ({}x)",
+                files, LATENCY_MS, sequentialMs, WORKERS, parallelMs,
+                String.format("%.1f", (double) sequentialMs / Math.max(1, parallelMs)));
+        assertThat(stub.requests()).isEqualTo(2 * files);
+        assertThat(parallelMs * 2).isLessThan(sequentialMs);
+    }
+
+    private long timeFetch(ObjectFetchService service, List<String> keys) throws IOException {
+        long start = System.nanoTime();
+        FileDownloadReport report = service.fetchAll(keys, (key, body) -> body.transferTo(OutputStream.nullOutputStream()));
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        assertThat(report.getSucceeded()).isEqualTo(keys.size());
+        return elapsedMs;
+    }
+
+    private ObjectFetchService service(int perRequestConcurrency) {
+        ObjectFetchService service = new ObjectFetchService(
+                restTemplate, executor, perRequestConcurrency, 32, 3, Duration.ofMillis(200));
+        ReflectionTestUtils.setField(service, "supabaseUrl", stub.baseUrl());
+        ReflectionTestUtils.setField(service, "supabaseKey", "key");
+        ReflectionTestUtils.setField(service, "bucketName", "polaroid-glossy");
+        return service;
+    }
+}
@@ -0,0 +1,286 @@
+package com.polaroid.service;
+
+import com.polaroid.dto.response.FileDownloadReport;
+import com.polaroid.dto.response.FileDownloadResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ObjectFetchServiceTest {
+    
+    private ThreadPoolTaskExecutor executor;
+    
+    @BeforeEach
+    void setUp() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(8);
+        executor.setMaxPoolSize(8);
+        executor.initialize();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+    
+    @Test
+    void reportsEveryKeyInRequestOrder() throws IOException {
+        ObjectFetchService service = service(key -> key.endsWith("missing.jpg")
+                ? null
+                : body(key.getBytes(StandardCharsets.UTF_8)));
+        Map<String, String> received = new ConcurrentHashMap<>();
+        
+        FileDownloadReport report = service.fetchAll(
+                List.of("o/1/a.jpg", "o/1/missing.jpg", "o/1/b.jpg"),
+                (key, body) -> received.put(key, new String(body.readAllBytes(), StandardCharsets.UTF_8)));
+        
+        assertThat(report.getTotal()).isEqualTo(3);
+        assertThat(report.getSucceeded()).isEqualTo(2);
+        assertThat(report.getFailed()).isEqualTo(1);
+        assertThat(report.getResults()).extracting(FileDownloadResult::getKey)
+                .containsExactly("o/1/a.jpg", "o/1/missing.jpg", "o/1/b.jpg");
+        assertThat(report.getResults().get(1).getAttempts()).isEqualTo(3);
+        assertThat(received).containsOnlyKeys("o/1/a.jpg", "o/1/b.jpg")
+                .containsEntry("o/1/a.jpg", "o/1/a.jpg");
+    }
+    
+    @Test
+    void doesNotRetryMissingObjects() throws IOException {
+        ObjectFetchService service = service(key -> {
+            throw HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", new HttpHeaders(), null, null);
+        });
+        
+        FileDownloadReport report = service.fetchAll(List.of("o/1/gone.jpg"), (key, body) -> body.readAllBytes());
+        
+        assertThat(report.getFailed()).isEqualTo(1);
+        assertThat(report.getResults().get(0).getAttempts()).isEqualTo(1);
+        assertThat(report.getResults().get(0).getError()).contains("404");
+    }
+    
+    @Test
+    void retriesBodyThatFailsHalfwayAndHandsOverOnlyTheCompleteCopy() throws IOException {
+        byte[] content = "complete-image-bytes".getBytes(StandardCharsets.UTF_8);
+        AtomicInteger calls = new AtomicInteger();
+        ObjectFetchService service = service(key -> calls.incrementAndGet() == 1
+                ? new FailingStream(content, 5)
+                : body(content));
+        Map<String, byte[]> received = new ConcurrentHashMap<>();
+        
+        FileDownloadReport report = service.fetchAll(List.of("o/1/a.jpg"),
+                (key, body) -> received.put(key, body.readAllBytes()));
+        
+        assertThat(report.getSucceeded()).isEqualTo(1);
+        assertThat(report.getResults().get(0).getAttempts()).isEqualTo(2);
+        assertThat(received.get("o/1/a.jpg")).isEqualTo(content);
+    }
+    
+    @Test
+    void consumerFailureAbortsTheDownload() {
+        ObjectFetchService service = service(key -> body(new byte[16]));
+        
+        assertThatThrownBy(() -> service.fetchAll(List.of("o/1/a.jpg", "o/1/b.jpg"), (key, body) -> {
+            throw new IOException("client went away");
+        })).isInstanceOf(IOException.class).hasMessage("client went away");
+    }
+    
+    /**
+     * Benchmark-style check: with four workers per request, body transfers of
+     * different objects run at the same time rather than one after another.
+     */
+    @Test
+    void transfersOverlapAcrossWorkers() throws IOException {
+        CountDownLatch allReading = new CountDownLatch(4);
+        ObjectFetchService service = service(key -> new InputStream() {
+            private boolean done;
+            
+            @Override
+            public int read() throws IOException {
+                if (!done) {
+                    done = true;
+                    allReading.countDown();
+                    try {
+                        if (!allReading.await(5, TimeUnit.SECONDS)) {
+                            throw new IOException("transfers did not overlap");
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IOException(e);
+                    }
+                    return 'x';
+                }
+                return -1;
+            }
+        });
+        List<String> keys = IntStream.range(0, 4).mapToObj(i -> "o/1/" + i + ".jpg").toList();
+        
+        long start = System.nanoTime();
+        FileDownloadReport report = service.fetchAll(keys, (key, body) -> body.readAllBytes());
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        
+        assertThat(report.getSucceeded()).isEqualTo(4);
+        assertThat(report.getResults()).allSatisfy(result -> assertThat(result.getAttempts()).isEqualTo(1));
+        assertThat(elapsedMs).isLessThan(5_000);
+    }
+    
+    @Test
+    void concurrentDownloadsShareTheApplicationWideLimit() throws Exception {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        ObjectFetchService service = service(key -> new InputStream() {
+            private boolean done;
+            
+            @Override
+            public int read() {
+                if (done) {
+                    return -1;
+                }
+                done = true;
+                peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+                return 'x';
+            }
+        }, 2);
+        List<String> keys = IntStream.range(0, 6).mapToObj(i -> "o/1/" + i + ".jpg").toList();
+        
+        CompletableFuture<FileDownloadReport> first = CompletableFuture.supplyAsync(() -> fetch(service, keys));
+        CompletableFuture<FileDownloadReport> second = CompletableFuture.supplyAsync(() -> fetch(service, keys));
+        
+        assertThat(first.get(10, TimeUnit.SECONDS).getSucceeded()).isEqualTo(6);
+        assertThat(second.get(10, TimeUnit.SECONDS).getSucceeded()).isEqualTo(6);
+        assertThat(peak.get()).isLessThanOrEqualTo(2);
+    }
+    
+    private static FileDownloadReport fetch(ObjectFetchService service, List<String> keys) {
+        try {
+            return service.fetchAll(keys, (key, body) -> body.readAllBytes());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private ObjectFetchService service(Function<String, InputStream> bodies) {
+        return service(bodies, 32);
+    }
+    
+    private ObjectFetchService service(Function<String, InputStream> bodies, int maxConcurrent) {
+        ObjectFetchService service = new ObjectFetchService(
+                new StubRestTemplate(bodies), executor, 4, maxConcurrent, 3, Duration.ofMillis(1));
+        ReflectionTestUtils.setField(service, "supabaseUrl", "http://storage.test");
+        ReflectionTestUtils.setField(service, "supabaseKey", "key");
+        ReflectionTestUtils.setField(service, "bucketName", "bucket");
+        return service;
+    }
+    
+    private static InputStream body(byte[] content) {
+        return new ByteArrayInputStream(content);
+    }
+    
+    /**
+     * Serves bodies by object key; a null body is a 503. IOExceptions from the
+     * extractor are wrapped the way RestTemplate does it.
+     */
+    private static class StubRestTemplate extends RestTemplate {
+        private final Function<String, InputStream> bodies;
+        
+        StubRestTemplate(Function<String, InputStream> bodies) {
+            this.bodies = bodies;
+        }
+        
+        @Override
+        public <T> T execute(String url, HttpMethod method, RequestCallback requestCallback,
+                ResponseExtractor<T> responseExtractor, Object... uriVariables) {
+            String key = url.substring(url.indexOf("/bucket/") + "/bucket/".length());
+            InputStream body = bodies.apply(key);
+            if (body == null) {
+                throw new ResourceAccessException("503 from storage");
+            }
+            try {
+                return responseExtractor.extractData(new StubResponse(body));
+            } catch (IOException e) {
+                throw new ResourceAccessException("I/O error on GET request for \"" + url + "\": " + e.getMessage(), e);
+            }
+        }
+    }
+    
+    private record StubResponse(InputStream body) implements ClientHttpResponse {
+        @Override
+        public HttpStatusCode getStatusCode() {
+            return HttpStatus.OK;
+        }
+        
+        @Override
+        public String getStatusText() {
+            return "OK";
+        }
+        
+        @Override
+        public void close() {
+        }
+        
+        @Override
+        public InputStream getBody() {
+            return body;
+        }
+        
+        @Override
+        public HttpHeaders getHeaders() {
+            return new HttpHeaders();
+        }
+    }
+    
+    private static class FailingStream extends InputStream {
+        private final byte[] content;
+        private final int failAfter;
+        private int position;
+        
+        FailingStream(byte[] content, int failAfter) {
+            this.content = content;
+            this.failAfter = failAfter;
+        }
+        
+        @Override
+        public int read() throws IOException {
+            if (position == failAfter) {
+                throw new IOException("Connection reset");
+            }
+            return position < content.length ? content[position++] : -1;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.polaroid.service;
+
+import com.polaroid.event.OrderChangedEvent;
+import com.polaroid.model.enums.OrderStatus;
+import com.polaroid.model.enums.PaymentStatus;
+import com.polaroid.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OrderCounterStoreTest {
+
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final OrderCounterStore store = new OrderCounterStore(orderRepository);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(store, "enabled", true);
+        ReflectionTestUtils.setField(store, "revenueDays", 31);
+        when(orderRepository.sumPaidRevenueByDay(any())).thenReturn(List.of());
+    }
+
+    @Test
+    void keepsEventsAppliedWhileReconcileReadsTheDatabase() {
+        when(orderRepository.countByStatusPaymentAndState()).thenReturn(rows(
+                row(OrderStatus.PENDING, PaymentStatus.PENDING, "W", 3)));
+        store.reconcile();
+
+        when(orderRepository.countByStatusPaymentAndState()).thenAnswer(invocation -> {
+            // Commits after the query's snapshot, so the rows below miss it.
+            store.onOrderChanged(created(OrderStatus.PENDING, PaymentStatus.PENDING, "J"));
+            return rows(row(OrderStatus.PENDING, PaymentStatus.PENDING, "W", 3));
+        });
+        store.reconcile();
+
+        assertThat(store.getTotalOrders()).isEqualTo(4);
+        assertThat(store.countByStatus(OrderStatus.PENDING)).isEqualTo(4);
+        assertThat(store.countByPaymentStatus(PaymentStatus.PENDING)).isEqualTo(4);
+        assertThat(store.getStateCountRows())
+                .extracting(row -> row[0] + "=" + row[1])
+                .containsExactlyInAnyOrder("W=3", "J=1");
+    }
+
+    @Test
+    void correctsDriftAgainstTheDatabase() {
+        when(orderRepository.countByStatusPaymentAndState()).thenReturn(rows(
+                row(OrderStatus.PENDING, PaymentStatus.PENDING, "W", 2)));
+        store.reconcile();
+        store.onOrderChanged(OrderChangedEvent.builder()
+                .oldStatus(OrderStatus.PENDING).newStatus(OrderStatus.PROCESSING)
+                .build());
+
+        when(orderRepository.countByStatusPaymentAndState()).thenReturn(rows(
+                row(OrderStatus.PENDING, PaymentStatus.PENDING, "W", 1),
+                row(OrderStatus.DELIVERED, PaymentStatus.PAID, "W", 1)));
+        store.reconcile();
+
+        assertThat(store.getTotalOrders()).isEqualTo(2);
+        assertThat(store.getStatusCounts()).containsOnly(
+                Map.entry("PENDING", 1L), Map.entry("DELIVERED", 1L));
+        assertThat(store.countByPaymentStatus(PaymentStatus.PAID)).isEqualTo(1);
+    }
+
+    @Test
+    void isNotReadyUntilFirstReconcile() {
+        store.onOrderChanged(created(OrderStatus.PENDING, PaymentStatus.PENDING, "W"));
+        assertThat(store.isReady()).isFalse();
+
+        when(orderRepository.countByStatusPaymentAndState()).thenReturn(rows(
+                row(OrderStatus.PENDING, PaymentStatus.PENDING, "W", 1)));
+        store.reconcile();
+
+        assertThat(store.isReady()).isTrue();
+        assertThat(store.getTotalOrders()).isEqualTo(1);
+    }
+
+    @Test
+    void keepsRevenueRecordedDuringReconcile() {
+        LocalDate today = LocalDate.now();
+        when(orderRepository.countByStatusPaymentAndState()).thenReturn(rows());
+        when(orderRepository.sumPaidRevenueByDay(any())).thenAnswer(invocation -> {
+            store.onOrderChanged(OrderChangedEvent.builder()
+                    .total(new BigDecimal("12.50"))
+                    .createdAt(LocalDateTime.now())
+                    .oldPaymentStatus(PaymentStatus.PENDING).newPaymentStatus(PaymentStatus.PAID)
+                    .build());
+            return rows(new Object[]{today, new BigDecimal("20.00")});
+        });
+        store.reconcile();
+
+        assertThat(store.sumPaidRevenueSince(today)).isEqualByComparingTo("32.50");
+    }
+
+    private OrderChangedEvent created(OrderStatus status, PaymentStatus paymentStatus, String state) {
+        return OrderChangedEvent.builder()
+                .created(true)
+                .customerState(state)
+                .total(BigDecimal.TEN)
+                .createdAt(LocalDateTime.now())
+                .newStatus(status)
+                .newPaymentStatus(paymentStatus)
+                .build();
+    }
+
+    private Object[] row(OrderStatus status, PaymentStatus paymentStatus, String state, long count) {
+        return new Object[]{status, paymentStatus, state, count};
+    }
+
+    private List<Object[]> rows(Object[]... rows) {
+        return new ArrayList<>(List.of(rows));
+    }
+}
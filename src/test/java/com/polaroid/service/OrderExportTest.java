@@ -0,0 +1,224 @@
+package com.polaroid.service;
+
+import com.polaroid.config.JpaAuditingConfig;
+import com.polaroid.controller.AdminController;
+import com.polaroid.exception.TooManyRequestsException;
+import com.polaroid.model.Order;
+import com.polaroid.model.enums.OrderStatus;
+import com.polaroid.repository.OrderExportRepository;
+import com.polaroid.repository.OrderRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.scheduling.concurrent.ConcurrentTaskExecutor;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Export slot and connection lifecycle: the slot is freed whether or not the
+ * body runs, and neither the slot nor a pooled connection is held while a
+ * client downloads.
+ */
+@DataJpaTest(properties = {
+        "order-export.max-concurrent=1",
+        "order-export.fetch-size=2"
+})
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({OrderExportService.class, OrderExportRepository.class, JpaAuditingConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderExportTest {
+
+    private static final int ORDERS = 5;
+
+    @Autowired
+    private OrderExportService orderExportService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeEach
+    void seed() {
+        orderRepository.deleteAll();
+        for (int i = 0; i < ORDERS; i++) {
+            orderRepository.save(Order.builder()
+                    .orderNumber("PG-EXP-" + i)
+                    .customerName(i == 0 ? "Tan, Mei \"Mei\"" : "Customer " + i)
+                    .customerEmail("customer" + i + "@example.com")
+                    .total(new BigDecimal("12.50"))
+                    .status(OrderStatus.PENDING)
+                    .build());
+        }
+    }
+
+    @Test
+    void writesCsvAndNdjson() throws IOException {
+        List<String> csv = lines(export(OrderExportService.Format.CSV));
+        List<String> ndjson = lines(export(OrderExportService.Format.NDJSON));
+
+        assertThat(csv).hasSize(ORDERS + 1);
+        assertThat(csv.get(0)).isEqualTo(String.join(",", OrderExportRepository.COLUMNS));
+        assertThat(csv).anyMatch(line -> line.startsWith("PG-EXP-0,\"Tan, Mei \"\"Mei\"\"\",") && line.contains(",12.50,"));
+        assertThat(ndjson).hasSize(ORDERS).allMatch(line -> line.startsWith("{\"orderNumber\":\"PG-EXP-"));
+    }
+
+    @Test
+    void turnsAwayExportsBeyondTheLimit() throws IOException {
+        OrderExportService.Export first = exportCsv();
+
+        assertThatThrownBy(this::exportCsv).isInstanceOf(TooManyRequestsException.class);
+
+        first.writeTo(new ByteArrayOutputStream());
+        assertThatSlotIsFree();
+    }
+
+    @Test
+    void slowClientHoldsNeitherTheSlotNorAConnection() throws Exception {
+        HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+        List<Integer> activeConnections = new ArrayList<>();
+        List<Boolean> slotFree = new ArrayList<>();
+        OutputStream slowClient = new OutputStream() {
+            @Override
+            public void write(int b) {
+                write(new byte[]{(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] bytes, int offset, int length) {
+                if (activeConnections.isEmpty()) {
+                    activeConnections.add(hikari.getHikariPoolMXBean().getActiveConnections());
+                    slotFree.add(trySlot());
+                }
+            }
+        };
+
+        exportCsv().writeTo(slowClient);
+
+        assertThat(activeConnections).containsExactly(0);
+        assertThat(slotFree).containsExactly(true);
+    }
+
+    @Test
+    void releasesTheSlotWhenTheRequestTimesOutBeforeTheBodyRuns() throws Exception {
+        abandonBeforeTheBodyRuns((listener, context) -> listener.onTimeout(new AsyncEvent(context)));
+    }
+
+    @Test
+    void releasesTheSlotWhenTheRequestFailsBeforeTheBodyRuns() throws Exception {
+        abandonBeforeTheBodyRuns((listener, context) ->
+                listener.onError(new AsyncEvent(context, new IOException("Connection reset by peer"))));
+    }
+
+    @Test
+    void releasingTwiceDoesNotFreeAnExtraSlot() throws IOException {
+        OrderExportService.Export export = exportCsv();
+        export.writeTo(new ByteArrayOutputStream());
+        export.release();
+        export.afterCompletion(null, null);
+
+        OrderExportService.Export next = exportCsv();
+        assertThatThrownBy(this::exportCsv).isInstanceOf(TooManyRequestsException.class);
+        next.release();
+    }
+
+    /**
+     * Drives the real WebAsyncManager: the export is started as async work on
+     * an executor that has not got round to it when the container reports a
+     * timeout or error and completes the request.
+     */
+    private void abandonBeforeTheBodyRuns(ListenerCall event) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/admin/orders/export");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AdminController controller = new AdminController(null, null, null, null, null, orderExportService);
+        ResponseEntity<StreamingResponseBody> entity = controller.exportOrders(
+                null, null, null, null, null, null, OrderExportService.Format.CSV, request);
+
+        List<Runnable> queued = new ArrayList<>();
+        WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(request);
+        asyncManager.setAsyncWebRequest(new StandardServletAsyncWebRequest(request, response));
+        asyncManager.setTaskExecutor(new ConcurrentTaskExecutor(queued::add));
+        asyncManager.startCallableProcessing(() -> {
+            entity.getBody().writeTo(response.getOutputStream());
+            return null;
+        });
+        assertThatThrownBy(this::exportCsv).isInstanceOf(TooManyRequestsException.class);
+
+        MockAsyncContext asyncContext = (MockAsyncContext) request.getAsyncContext();
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            event.call(listener, asyncContext);
+        }
+        asyncContext.complete();
+
+        assertThatSlotIsFree();
+        // The executor gets round to the body after all: it does no work.
+        queued.forEach(Runnable::run);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+        assertThatSlotIsFree();
+    }
+
+    @FunctionalInterface
+    private interface ListenerCall {
+        void call(AsyncListener listener, MockAsyncContext context) throws IOException;
+    }
+
+    private void assertThatSlotIsFree() {
+        assertThat(trySlot()).as("export slot free").isTrue();
+    }
+
+    private boolean trySlot() {
+        try {
+            exportCsv().release();
+            return true;
+        } catch (TooManyRequestsException e) {
+            return false;
+        }
+    }
+
+    private OrderExportService.Export exportCsv() {
+        return orderExportService.export(null, null, null, null, null, null, OrderExportService.Format.CSV);
+    }
+
+    private String export(OrderExportService.Format format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        orderExportService.export(null, null, null, null, null, null, format).writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static List<String> lines(String content) {
+        return content.lines().toList();
+    }
+}
@@ -0,0 +1,143 @@
+package com.polaroid.service;
+
+import com.polaroid.config.JpaAuditingConfig;
+import com.polaroid.dto.mapper.OrderMapper;
+import com.polaroid.dto.mapper.PrintSizeMapper;
+import com.polaroid.dto.projection.OrderSummary;
+import com.polaroid.dto.response.OrderResponse;
+import com.polaroid.model.Order;
+import com.polaroid.model.OrderItem;
+import com.polaroid.model.OrderStatusHistory;
+import com.polaroid.model.User;
+import com.polaroid.model.enums.OrderStatus;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Asserts a fixed number of SQL statements per order page, however many rows
+ * the page holds.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({OrderService.class, OrderMapper.class, PrintSizeCatalog.class, PrintSizeMapper.class, JpaAuditingConfig.class})
+class OrderQueryCountTest {
+
+    private static final String EMAIL = "customer@example.com";
+    private static final int ORDERS = 25;
+    private static final Pageable PAGE = PageRequest.of(0, 20, Sort.by("createdAt").descending());
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private ThumbnailService thumbnailService;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void seed() {
+        User user = entityManager.persist(User.builder()
+                .email(EMAIL)
+                .passwordHash("hash")
+                .name("Customer")
+                .build());
+
+        for (int i = 0; i < ORDERS; i++) {
+            Order order = Order.builder()
+                    .orderNumber("PG-COUNT-" + i)
+                    .userId(user.getId())
+                    .customerName("Customer")
+                    .customerEmail(EMAIL)
+                    .total(BigDecimal.TEN)
+                    .build();
+            for (int j = 0; j < 3; j++) {
+                order.getItems().add(OrderItem.builder()
+                        .order(order)
+                        .sizeId("4R")
+                        .sizeName("4R")
+                        .quantity(1)
+                        .unitPrice(BigDecimal.ONE)
+                        .totalPrice(BigDecimal.ONE)
+                        .images("[\"https://cdn.example.com/original/" + i + "/" + j + ".jpg\"]")
+                        .build());
+            }
+            order.getStatusHistory().add(OrderStatusHistory.builder()
+                    .order(order)
+                    .status(OrderStatus.PENDING)
+                    .message("Order created")
+                    .build());
+            entityManager.persist(order);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        when(thumbnailService.findReady(any())).thenReturn(Set.of());
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void adminListPageIsOneSelectAndOneCount() {
+        Page<OrderSummary> page = orderService.getOrdersWithFilters(null, null, null, null, null, null, PAGE);
+
+        assertThat(page.getContent()).hasSize(20);
+        assertThat(page.getTotalElements()).isEqualTo(ORDERS);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void customerPageBatchFetchesItemsAndHistory() {
+        Page<OrderResponse> page = orderService.getUserOrders(EMAIL, PAGE);
+
+        assertThat(page.getContent()).hasSize(20)
+                .allSatisfy(order -> {
+                    assertThat(order.getItems()).hasSize(3);
+                    assertThat(order.getStatusHistory()).hasSize(1);
+                });
+        // User lookup, page select, count, one items batch and one history batch.
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(5);
+        verify(thumbnailService, times(1)).findReady(any());
+    }
+
+    @Test
+    void detailViewLoadsItemsWithTheOrder() {
+        OrderResponse order = orderService.getOrderByNumber("PG-COUNT-7");
+
+        assertThat(order.getItems()).hasSize(3);
+        assertThat(order.getStatusHistory()).hasSize(1);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+    }
+}
@@ -0,0 +1,108 @@
+package com.polaroid.service;
+
+import com.polaroid.config.JpaAuditingConfig;
+import com.polaroid.dto.mapper.OrderMapper;
+import com.polaroid.dto.mapper.PrintSizeMapper;
+import com.polaroid.dto.response.OrderStatusBulkReport;
+import com.polaroid.model.Order;
+import com.polaroid.model.OrderItem;
+import com.polaroid.model.enums.OrderStatus;
+import com.polaroid.repository.OrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Marks a courier pickup's worth of orders as POSTED through the bulk
+ * transition and through one updateOrderStatus call per order, and reports
+ * the throughput of each. Run with {@code -Dbenchmark=true}; pass
+ * {@code -Dbenchmark.orders=3000} for a larger batch.
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({OrderService.class, OrderMapper.class, PrintSizeCatalog.class, PrintSizeMapper.class, JpaAuditingConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderStatusBulkBenchmarkTest {
+
+    private static final int ORDERS = Integer.getInteger("benchmark.orders", 300);
+    private static final String PACKER = "packer@example.com";
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @MockitoBean
+    private ThumbnailService thumbnailService;
+
+    @Test
+    void reportsBulkThroughputAgainstOneRequestPerOrder() {
+        when(thumbnailService.findReady(any())).thenReturn(Set.of());
+        List<UUID> bulkIds = seed("BULK");
+        List<UUID> singleIds = seed("SINGLE");
+        long start = System.nanoTime();
+        OrderStatusBulkReport report = orderService.updateOrderStatuses(bulkIds, OrderStatus.POSTED, "Courier pickup", PACKER);
+        long bulkNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (UUID orderId : singleIds) {
+            orderService.updateOrderStatus(orderId, OrderStatus.POSTED, "Courier pickup", PACKER);
+        }
+        long singleNanos = System.nanoTime() - start;
+
+        log.info("POSTED for {} orders: bulk {} orders/sec, one by one {} orders/sec",
+                ORDERS, Math.round(ORDERS / (bulkNanos / 1_000_000_000.0)),
+                Math.round(ORDERS / (singleNanos / 1_000_000_000.0)));
+        assertThat(report.getUpdated()).isEqualTo(ORDERS);
+        assertThat(orderRepository.countByStatus(OrderStatus.POSTED)).isEqualTo(2L * ORDERS);
+    }
+
+    private List<UUID> seed(String prefix) {
+        List<Order> orders = new ArrayList<>(ORDERS);
+        for (int i = 0; i < ORDERS; i++) {
+            Order order = Order.builder()
+                    .orderNumber("PG-" + prefix + "-" + i)
+                    .customerName("Customer " + i)
+                    .customerEmail("customer" + i + "@example.com")
+                    .total(BigDecimal.TEN)
+                    .status(OrderStatus.PROCESSING)
+                    .build();
+            order.getItems().add(OrderItem.builder()
+                    .order(order)
+                    .sizeId("4R")
+                    .sizeName("4R")
+                    .quantity(1)
+                    .unitPrice(BigDecimal.TEN)
+                    .totalPrice(BigDecimal.TEN)
+                    .images("[\"https://cdn.example.com/original/" + prefix + i + ".jpg\"]")
+                    .build());
+            orders.add(order);
+        }
+        return orderRepository.saveAll(orders).stream().map(Order::getId).toList();
+    }
+}
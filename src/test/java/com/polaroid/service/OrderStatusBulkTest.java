@@ -0,0 +1,196 @@
+package com.polaroid.service;
+
+import com.polaroid.config.JpaAuditingConfig;
+import com.polaroid.dto.mapper.OrderMapper;
+import com.polaroid.dto.mapper.PrintSizeMapper;
+import com.polaroid.dto.response.OrderStatusBulkReport;
+import com.polaroid.model.Order;
+import com.polaroid.model.OrderStatusHistory;
+import com.polaroid.model.enums.OrderStatus;
+import com.polaroid.repository.OrderRepository;
+import com.polaroid.repository.OrderStatusHistoryRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks that the bulk status transition leaves orders exactly as the
+ * single-order path would, in a fixed number of statements.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({OrderService.class, OrderMapper.class, PrintSizeCatalog.class, PrintSizeMapper.class, JpaAuditingConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderStatusBulkTest {
+
+    private static final String ADMIN = "admin@example.com";
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderStatusHistoryRepository statusHistoryRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private ThumbnailService thumbnailService;
+
+    @BeforeEach
+    void setUp() {
+        when(thumbnailService.findReady(any())).thenReturn(Set.of());
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @EnumSource(OrderStatus.class)
+    void matchesTheSingleOrderPath(OrderStatus target) {
+        for (OrderStatus from : OrderStatus.values()) {
+            if (from == target) {
+                continue;
+            }
+            for (String message : new String[]{null, "Courier pickup"}) {
+                Order single = order(from, "Earlier reason");
+                Order bulk = order(from, "Earlier reason");
+
+                orderService.updateOrderStatus(single.getId(), target, message, ADMIN);
+                OrderStatusBulkReport report = orderService.updateOrderStatuses(List.of(bulk.getId()), target, message, ADMIN);
+
+                assertThat(report.getUpdated()).isEqualTo(1);
+                assertSameOutcome(single.getId(), bulk.getId(), from + " -> " + target + " with " + message);
+            }
+        }
+    }
+
+    @Test
+    void deliveredOrdersCanBeRefunded() {
+        Order delivered = order(OrderStatus.DELIVERED, null);
+
+        OrderStatusBulkReport report = orderService.updateOrderStatuses(
+                List.of(delivered.getId()), OrderStatus.REFUNDED, "Refunded", ADMIN);
+
+        assertThat(report.getFailed()).isZero();
+        assertThat(orderRepository.findById(delivered.getId()).orElseThrow().getStatus()).isEqualTo(OrderStatus.REFUNDED);
+    }
+
+    @Test
+    void processingWritesNoHistory() {
+        Order pending = order(OrderStatus.PENDING, null);
+
+        orderService.updateOrderStatuses(List.of(pending.getId()), OrderStatus.PROCESSING, "Printing", ADMIN);
+
+        assertThat(statusHistoryRepository.findByOrderIdOrderByCreatedAtDesc(pending.getId())).isEmpty();
+    }
+
+    @Test
+    void cancellingWithoutAMessageClearsTheOldReason() {
+        Order order = order(OrderStatus.PENDING, "Earlier reason");
+
+        orderService.updateOrderStatuses(List.of(order.getId()), OrderStatus.CANCELLED, null, ADMIN);
+
+        Order cancelled = orderRepository.findById(order.getId()).orElseThrow();
+        assertThat(cancelled.getCancelReason()).isNull();
+        assertThat(cancelled.getCancelledAt()).isNotNull();
+    }
+
+    @Test
+    void reportsMissingAndUnchangedOrders() {
+        Order posted = order(OrderStatus.POSTED, null);
+        Order pending = order(OrderStatus.PENDING, null);
+        UUID missing = UUID.randomUUID();
+
+        OrderStatusBulkReport report = orderService.updateOrderStatuses(
+                List.of(posted.getId(), pending.getId(), missing), OrderStatus.POSTED, null, ADMIN);
+
+        assertThat(report.getTotal()).isEqualTo(3);
+        assertThat(report.getUpdated()).isEqualTo(1);
+        assertThat(report.getUnchanged()).isEqualTo(1);
+        assertThat(report.getFailed()).isEqualTo(1);
+        assertThat(statusHistoryRepository.findByOrderIdOrderByCreatedAtDesc(posted.getId())).isEmpty();
+    }
+
+    @Test
+    void postsABatchInAFixedNumberOfStatements() {
+        int orders = 60;
+        List<UUID> bulkIds = new ArrayList<>(orders);
+        List<UUID> singleIds = new ArrayList<>(orders);
+        for (int i = 0; i < orders; i++) {
+            bulkIds.add(order(OrderStatus.PROCESSING, null).getId());
+            singleIds.add(order(OrderStatus.PROCESSING, null).getId());
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        OrderStatusBulkReport report = orderService.updateOrderStatuses(bulkIds, OrderStatus.POSTED, "Courier pickup", ADMIN);
+        long bulkStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        for (UUID orderId : singleIds) {
+            orderService.updateOrderStatus(orderId, OrderStatus.POSTED, "Courier pickup", ADMIN);
+        }
+        long singleStatements = statistics.getPrepareStatementCount();
+
+        assertThat(report.getUpdated()).isEqualTo(orders);
+        // The locking read, the bulk UPDATE and one insert per history batch.
+        assertThat(bulkStatements).isLessThanOrEqualTo(2 + (orders + 19) / 20);
+        assertThat(bulkStatements).isLessThan(singleStatements);
+    }
+
+    private void assertSameOutcome(UUID singleId, UUID bulkId, String description) {
+        Order single = orderRepository.findById(singleId).orElseThrow();
+        Order bulk = orderRepository.findById(bulkId).orElseThrow();
+
+        assertThat(bulk.getStatus()).as(description).isEqualTo(single.getStatus());
+        assertThat(bulk.getCancelReason()).as(description).isEqualTo(single.getCancelReason());
+        assertThat(bulk.getShippedAt() != null).as(description).isEqualTo(single.getShippedAt() != null);
+        assertThat(bulk.getDeliveredAt() != null).as(description).isEqualTo(single.getDeliveredAt() != null);
+        assertThat(bulk.getCancelledAt() != null).as(description).isEqualTo(single.getCancelledAt() != null);
+        assertThat(history(bulkId)).as(description).isEqualTo(history(singleId));
+    }
+
+    private List<String> history(UUID orderId) {
+        return statusHistoryRepository.findByOrderIdOrderByCreatedAtDesc(orderId).stream()
+                .map(entry -> entry.getStatus() + ": " + entry.getMessage())
+                .toList();
+    }
+
+    private Order order(OrderStatus status, String cancelReason) {
+        return orderRepository.save(Order.builder()
+                .orderNumber("PG-BULK-" + UUID.randomUUID().toString().substring(0, 8))
+                .customerName("Customer")
+                .customerEmail("customer@example.com")
+                .total(BigDecimal.TEN)
+                .status(status)
+                .cancelReason(cancelReason)
+                .build());
+    }
+}
@@ -0,0 +1,150 @@
+package com.polaroid.service;
+
+import com.polaroid.config.AsyncConfig;
+import com.polaroid.config.HttpClientConfig;
+import com.polaroid.config.JpaAuditingConfig;
+import com.polaroid.model.Order;
+import com.polaroid.model.PaymentRequest;
+import com.polaroid.model.enums.PaymentRequestStatus;
+import com.polaroid.repository.OrderRepository;
+import com.polaroid.repository.PaymentRequestRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Runs POST /pay through the payment outbox against a local ToyyibPay stub:
+ * the request returns before the gateway answers, the bill lands on the order
+ * once the worker is done, and failures are retried with backoff.
+ */
+@DataJpaTest(properties = {
+        "http-client.payment.read-timeout=3s",
+        "payment.outbox.retry-backoff=5s"
+})
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({PaymentService.class, PaymentOutboxStore.class, PaymentOutboxWorker.class, ToyyibPayClient.class,
+        AsyncConfig.class, HttpClientConfig.class, JpaAuditingConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PaymentOutboxTest {
+
+    private static final ToyyibPayStub STUB = startStub();
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PaymentRequestRepository paymentRequestRepository;
+
+    private String orderNumber;
+
+    @DynamicPropertySource
+    static void gateway(DynamicPropertyRegistry registry) {
+        registry.add("toyyibpay.base-url", STUB::baseUrl);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        STUB.close();
+    }
+
+    @BeforeEach
+    void seed() {
+        STUB.calls().clear();
+        STUB.delay(0).billCode("stubbill1");
+        orderNumber = "PG-OUTBOX-" + UUID.randomUUID().toString().substring(0, 8);
+        orderRepository.save(Order.builder()
+                .orderNumber(orderNumber)
+                .customerName("Customer")
+                .customerEmail("customer@example.com")
+                .total(new BigDecimal("25.00"))
+                .build());
+    }
+
+    @Test
+    void payReturnsBeforeASlowGatewayAnswers() {
+        STUB.delay(1_500).billCode("slowbill");
+
+        long start = System.nanoTime();
+        Map<String, String> result = paymentService.createPayment(orderNumber);
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(1_000));
+        assertThat(result).containsEntry("status", PaymentService.STATUS_PENDING);
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() ->
+                assertThat(paymentService.getPaymentStatus(orderNumber))
+                        .containsEntry("status", PaymentService.STATUS_READY)
+                        .containsEntry("billCode", "slowbill"));
+        assertThat(orderRepository.findByOrderNumber(orderNumber).orElseThrow().getToyyibpayRef()).isEqualTo("slowbill");
+    }
+
+    @Test
+    void repeatedPayRequestsShareOneOutboxRowAndOneBill() {
+        STUB.delay(500);
+
+        paymentService.createPayment(orderNumber);
+        paymentService.createPayment(orderNumber);
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() ->
+                assertThat(paymentService.getPaymentStatus(orderNumber))
+                        .containsEntry("status", PaymentService.STATUS_READY));
+        Map<String, String> again = paymentService.createPayment(orderNumber);
+
+        assertThat(again).containsEntry("status", PaymentService.STATUS_READY).containsEntry("billCode", "stubbill1");
+        assertThat(requestsFor(orderNumber)).hasSize(1);
+        assertThat(STUB.calls()).hasSize(1);
+    }
+
+    @Test
+    void gatewayErrorIsRetriedWithBackoff() {
+        STUB.respondWith(500, "error");
+
+        paymentService.createPayment(orderNumber);
+
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() ->
+                assertThat(requestsFor(orderNumber)).singleElement().satisfies(request -> {
+                    assertThat(request.getStatus()).isEqualTo(PaymentRequestStatus.PENDING);
+                    assertThat(request.getAttempts()).isEqualTo(1);
+                    assertThat(request.getLastError()).isNotBlank();
+                    assertThat(request.getNextAttemptAt()).isAfter(LocalDateTime.now().plusSeconds(3));
+                }));
+        assertThat(paymentService.getPaymentStatus(orderNumber)).containsEntry("status", PaymentService.STATUS_PENDING);
+    }
+
+    private List<PaymentRequest> requestsFor(String number) {
+        UUID orderId = orderRepository.findByOrderNumber(number).orElseThrow().getId();
+        return paymentRequestRepository.findAll().stream()
+                .filter(request -> request.getOrderId().equals(orderId))
+                .toList();
+    }
+
+    private static ToyyibPayStub startStub() {
+        try {
+            return new ToyyibPayStub();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
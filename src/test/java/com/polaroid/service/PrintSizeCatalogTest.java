@@ -0,0 +1,60 @@
+package com.polaroid.service;
+
+import com.polaroid.dto.mapper.PrintSizeMapper;
+import com.polaroid.model.PrintSize;
+import com.polaroid.repository.CatalogVersionRepository;
+import com.polaroid.repository.PrintSizeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PrintSizeCatalogTest {
+
+    private final PrintSizeRepository printSizeRepository = mock(PrintSizeRepository.class);
+    private final CatalogVersionRepository catalogVersionRepository = mock(CatalogVersionRepository.class);
+    private final PrintSizeCatalog catalog =
+            new PrintSizeCatalog(printSizeRepository, catalogVersionRepository, new PrintSizeMapper());
+
+    @BeforeEach
+    void setUp() {
+        when(catalogVersionRepository.findById(any())).thenReturn(Optional.empty());
+        when(printSizeRepository.findAll()).thenReturn(List.of(PrintSize.builder()
+                .id("4R")
+                .name("4R")
+                .displayName("4R (4x6)")
+                .price(new BigDecimal("2.50"))
+                .isActive(true)
+                .build()));
+    }
+
+    @Test
+    void changesToAReturnedSizeDoNotReachTheCatalog() {
+        catalog.get("4R").setPrice(BigDecimal.ZERO);
+        catalog.getAll().get(0).setDisplayName("changed");
+        catalog.getActive().get(0).setIsActive(false);
+        catalog.getAll(List.of("4R")).get("4R").setName("changed");
+
+        assertThat(catalog.get("4R").getPrice()).isEqualByComparingTo("2.50");
+        assertThat(catalog.get("4R").getDisplayName()).isEqualTo("4R (4x6)");
+        assertThat(catalog.get("4R").getName()).isEqualTo("4R");
+        assertThat(catalog.getActive()).singleElement()
+                .satisfies(printSize -> assertThat(printSize.getIsActive()).isTrue());
+        verify(printSizeRepository, times(1)).findAll();
+    }
+
+    @Test
+    void unknownSizesAreLeftOut() {
+        assertThat(catalog.get("A0")).isNull();
+        assertThat(catalog.getAll(List.of("4R", "A0"))).containsOnlyKeys("4R");
+    }
+}
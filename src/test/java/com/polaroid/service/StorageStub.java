@@ -0,0 +1,72 @@
+package com.polaroid.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local stand-in for the Supabase storage object API. Answers every GET with a
+ * body of the configured size after the configured delay, standing in for the
+ * round trip to the real bucket.
+ */
+class StorageStub implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private volatile byte[] body = new byte[0];
+    private volatile long delayMillis;
+
+    StorageStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/storage/v1/object/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    StorageStub bodySize(int bytes) {
+        this.body = new byte[bytes];
+        return this;
+    }
+
+    StorageStub delay(long delayMillis) {
+        this.delayMillis = delayMillis;
+        return this;
+    }
+
+    int requests() {
+        return requests.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        exchange.getRequestBody().readAllBytes();
+        try {
+            Thread.sleep(delayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        byte[] response = body;
+        try (OutputStream out = exchange.getResponseBody()) {
+            exchange.sendResponseHeaders(200, response.length == 0 ? -1 : response.length);
+            out.write(response);
+        }
+    }
+}
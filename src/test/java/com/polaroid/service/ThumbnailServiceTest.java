@@ -0,0 +1,76 @@
+package com.polaroid.service;
+
+import com.polaroid.model.enums.ThumbnailState;
+import com.polaroid.repository.ImageThumbnailRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ThumbnailServiceTest {
+
+    private static final String KEY = "original/order-1/a.jpg";
+
+    private final RestTemplate restTemplate = mock(RestTemplate.class);
+    private final ThreadPoolTaskExecutor executor = mock(ThreadPoolTaskExecutor.class);
+    private final ImageThumbnailRepository repository = mock(ImageThumbnailRepository.class);
+    private final ThumbnailService thumbnailService = new ThumbnailService(restTemplate, executor, repository);
+    private final List<Runnable> queued = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(thumbnailService, "retryIntervalMs", 60_000L);
+        ReflectionTestUtils.setField(thumbnailService, "maxAttempts", 5);
+        when(repository.findPendingKeys(any(), any())).thenReturn(List.of(KEY));
+        when(restTemplate.execute(any(String.class), any(), any(), any())).thenThrow(new ResourceAccessException("timeout"));
+        doAnswer(invocation -> queued.add(invocation.getArgument(0))).when(executor).execute(any(Runnable.class));
+    }
+
+    @Test
+    void retryDoesNotRequeueAKeyThatIsStillQueued() {
+        thumbnailService.generateAsync(KEY);
+        thumbnailService.retryPending();
+        thumbnailService.retryPending();
+
+        verify(executor, times(1)).execute(any(Runnable.class));
+    }
+
+    @Test
+    void retryRequeuesTheKeyOnceTheQueuedJobHasRun() {
+        thumbnailService.retryPending();
+        queued.remove(0).run();
+        thumbnailService.retryPending();
+
+        verify(executor, times(2)).execute(any(Runnable.class));
+        verify(repository).recordAttempt(eq(KEY), eq(ThumbnailState.PENDING), any(), any());
+        verify(repository).failIfExhausted(eq(KEY), eq(ThumbnailState.FAILED), anyInt());
+    }
+
+    @Test
+    void rejectedKeysCanBeQueuedAgain() {
+        doThrow(new TaskRejectedException("full"))
+                .doAnswer(invocation -> queued.add(invocation.getArgument(0)))
+                .when(executor).execute(any(Runnable.class));
+
+        thumbnailService.retryPending();
+        thumbnailService.retryPending();
+
+        verify(executor, times(2)).execute(any(Runnable.class));
+    }
+}
@@ -0,0 +1,133 @@
+package com.polaroid.service;
+
+import com.polaroid.exception.PaymentGatewayException;
+import com.polaroid.model.Order;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ToyyibPayClientTest {
+
+    private static final Duration OPEN_DURATION = Duration.ofMillis(200);
+
+    private ToyyibPayStub stub;
+    private ToyyibPayClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        stub = new ToyyibPayStub();
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setReadTimeout(Duration.ofMillis(300));
+        client = new ToyyibPayClient(new RestTemplate(requestFactory), stub.baseUrl(), 2, OPEN_DURATION);
+        ReflectionTestUtils.setField(client, "toyyibpaySecretKey", "secret");
+        ReflectionTestUtils.setField(client, "categoryCode", "category");
+        ReflectionTestUtils.setField(client, "returnUrl", "http://localhost:3000/payment-status");
+        ReflectionTestUtils.setField(client, "callbackUrl", "http://localhost:8080/api/webhooks/toyyibpay");
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.close();
+    }
+
+    @Test
+    void returnsTheBillCodeFromTheGateway() {
+        stub.billCode("gw7xk2");
+
+        assertThat(client.createBill(order("PG-PAY-1"))).isEqualTo("gw7xk2");
+        assertThat(stub.calls()).singleElement().satisfies(form -> {
+            assertThat(form).containsEntry("billExternalReferenceNo", "PG-PAY-1");
+            assertThat(form).containsEntry("billAmount", "2500");
+        });
+    }
+
+    @Test
+    void opensAfterConsecutiveFailuresAndLetsOneTrialThrough() throws InterruptedException {
+        stub.respondWith(500, "error");
+        failTwice();
+
+        assertThat(client.tryAcquire()).isFalse();
+        assertThat(client.getRetryAfterMillis()).isPositive();
+
+        Thread.sleep(OPEN_DURATION.toMillis() + 50);
+        assertThat(client.tryAcquire()).isTrue();
+        assertThat(client.tryAcquire()).isFalse();
+
+        stub.billCode("recovered");
+        assertThat(client.createBill(order("PG-PAY-2"))).isEqualTo("recovered");
+        assertThat(client.tryAcquire()).isTrue();
+        assertThat(client.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void failedTrialReopensTheCircuit() throws InterruptedException {
+        stub.respondWith(500, "error");
+        failTwice();
+        Thread.sleep(OPEN_DURATION.toMillis() + 50);
+
+        assertThat(client.tryAcquire()).isTrue();
+        assertThatThrownBy(() -> client.createBill(order("PG-PAY-3"))).isInstanceOf(PaymentGatewayException.class);
+
+        assertThat(client.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void releasesTheTrialSlotWhenTheCallFailsUnexpectedly() throws InterruptedException {
+        stub.respondWith(500, "error");
+        failTwice();
+        Thread.sleep(OPEN_DURATION.toMillis() + 50);
+        assertThat(client.tryAcquire()).isTrue();
+
+        Order broken = order("PG-PAY-4");
+        broken.setTotal(null);
+        assertThatThrownBy(() -> client.createBill(broken)).isInstanceOf(NullPointerException.class);
+
+        assertThat(client.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void slowGatewayTimesOutAsAFailure() {
+        stub.delay(2_000);
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> client.createBill(order("PG-PAY-5")))
+                .isInstanceOf(PaymentGatewayException.class);
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void emptyResponseIsAFailure() {
+        stub.respondWith(200, "");
+
+        assertThatThrownBy(() -> client.createBill(order("PG-PAY-6")))
+                .isInstanceOf(PaymentGatewayException.class);
+    }
+
+    private void failTwice() {
+        for (int i = 0; i < 2; i++) {
+            assertThat(client.tryAcquire()).isTrue();
+            assertThatThrownBy(() -> client.createBill(order("PG-PAY-FAIL")))
+                    .isInstanceOf(PaymentGatewayException.class);
+        }
+    }
+
+    private static Order order(String orderNumber) {
+        return Order.builder()
+                .orderNumber(orderNumber)
+                .customerName("Customer")
+                .customerEmail("customer@example.com")
+                .total(new BigDecimal("25.00"))
+                .build();
+    }
+}
@@ -0,0 +1,92 @@
+package com.polaroid.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+
+/**
+ * Local stand-in for the ToyyibPay createBill API. Answers every call with the
+ * configured status, body and delay, and records the submitted form fields.
+ */
+class ToyyibPayStub implements AutoCloseable {
+
+    private final HttpServer server;
+    private final List<Map<String, String>> calls = new CopyOnWriteArrayList<>();
+
+    private volatile int status = 200;
+    private volatile String body = "[{\"BillCode\":\"stubbill1\"}]";
+    private volatile long delayMillis;
+
+    ToyyibPayStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/index.php/api/createBill", this::handle);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+    }
+
+    String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    ToyyibPayStub respondWith(int status, String body) {
+        this.status = status;
+        this.body = body;
+        return this;
+    }
+
+    ToyyibPayStub billCode(String billCode) {
+        return respondWith(200, "[{\"BillCode\":\"" + billCode + "\"}]");
+    }
+
+    ToyyibPayStub delay(long delayMillis) {
+        this.delayMillis = delayMillis;
+        return this;
+    }
+
+    List<Map<String, String>> calls() {
+        return calls;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        calls.add(parseForm(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8)));
+        try {
+            Thread.sleep(delayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        byte[] response = body.getBytes(StandardCharsets.UTF_8);
+        try (OutputStream out = exchange.getResponseBody()) {
+            exchange.sendResponseHeaders(status, response.length);
+            out.write(response);
+        } catch (IOException e) {
+            // The client gave up (read timeout); nothing to answer.
+        }
+    }
+
+    private static Map<String, String> parseForm(String form) {
+        Map<String, String> fields = new HashMap<>();
+        for (String pair : form.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                fields.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return fields;
+    }
+}
@@ -0,0 +1,222 @@
+package com.polaroid.service;
+
+import com.polaroid.config.JpaAuditingConfig;
+import com.polaroid.dto.response.TrackingImportReport;
+import com.polaroid.event.OrderChangedEvent;
+import com.polaroid.exception.BadRequestException;
+import com.polaroid.model.Order;
+import com.polaroid.model.OrderStatusHistory;
+import com.polaroid.model.enums.OrderStatus;
+import com.polaroid.repository.OrderRepository;
+import com.polaroid.repository.OrderStatusHistoryRepository;
+import com.polaroid.repository.OrderTrackingRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Runs courier manifests through TrackingImportService and TrackingImportStore
+ * with a chunk size of two, so every file spans several chunks.
+ */
+@DataJpaTest(properties = "tracking-import.batch-size=2")
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({TrackingImportService.class, TrackingImportStore.class, OrderTrackingRepository.class, JpaAuditingConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@RecordApplicationEvents
+class TrackingImportTest {
+
+    private static final String PACKER = "packer@example.com";
+
+    @Autowired
+    private TrackingImportService trackingImportService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderStatusHistoryRepository statusHistoryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoSpyBean
+    private OrderTrackingRepository orderTrackingRepository;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    private TrackingImportService.TrackingImport result;
+
+    @BeforeEach
+    void seed() {
+        statusHistoryRepository.deleteAll();
+        orderRepository.deleteAll();
+        order("PG-IMP-1", OrderStatus.PENDING);
+        order("PG-IMP-2", OrderStatus.PROCESSING);
+        order("PG-IMP-3", OrderStatus.ON_DELIVERY);
+        order("PG-IMP-4", OrderStatus.CANCELLED);
+    }
+
+    @AfterEach
+    void deleteErrorReport() throws IOException {
+        if (result != null) {
+            Files.deleteIfExists(result.errorReport());
+        }
+    }
+
+    @Test
+    void postsOpenOrdersAndUpdatesTrackingOnShippedOnes() throws IOException {
+        result = importCsv("""
+                order_number,tracking_number
+                PG-IMP-1,JT1
+                PG-IMP-2,JT2
+                PG-IMP-3,JT3
+                """);
+
+        TrackingImportReport report = result.report();
+        assertThat(report.getTotal()).isEqualTo(3);
+        assertThat(report.getUpdated()).isEqualTo(3);
+        assertThat(report.getPosted()).isEqualTo(2);
+        assertThat(report.getFailed()).isZero();
+
+        assertOrder("PG-IMP-1", OrderStatus.POSTED, "JT1");
+        assertOrder("PG-IMP-2", OrderStatus.POSTED, "JT2");
+        assertOrder("PG-IMP-3", OrderStatus.ON_DELIVERY, "JT3");
+        assertThat(orderRepository.findByOrderNumber("PG-IMP-1").orElseThrow().getShippedAt()).isNotNull();
+        assertThat(history("PG-IMP-1")).extracting(OrderStatusHistory::getMessage).containsExactly("Order posted");
+        assertThat(history("PG-IMP-3")).isEmpty();
+        assertThat(events.stream(OrderChangedEvent.class))
+                .extracting(OrderChangedEvent::getNewStatus)
+                .containsExactly(OrderStatus.POSTED, OrderStatus.POSTED);
+    }
+
+    @Test
+    void reportsRejectedRowsInTheErrorCsv() throws IOException {
+        result = importCsv("""
+                order_number,tracking_number
+                PG-IMP-1,JT1
+                PG-IMP-4,JT4
+                PG-MISSING,JT5
+                PG-IMP-2,
+
+                "PG-IMP-3",%s
+                """.formatted("X".repeat(101)));
+
+        TrackingImportReport report = result.report();
+        assertThat(report.getTotal()).isEqualTo(5);
+        assertThat(report.getUpdated()).isEqualTo(1);
+        assertThat(report.getFailed()).isEqualTo(4);
+        assertThat(Files.readAllLines(result.errorReport())).containsExactlyInAnyOrder(
+                "line,order_number,tracking_number,error",
+                "3,PG-IMP-4,JT4,Order is cancelled",
+                "4,PG-MISSING,JT5,Order not found",
+                "5,PG-IMP-2,,Missing tracking_number",
+                "7,PG-IMP-3," + "X".repeat(101) + ",tracking_number is longer than 100 characters");
+        assertOrder("PG-IMP-2", OrderStatus.PROCESSING, null);
+        assertOrder("PG-IMP-4", OrderStatus.CANCELLED, null);
+    }
+
+    @Test
+    void acceptsSpreadsheetHeaders() throws IOException {
+        result = importCsv("\uFEFFCourier,Tracking Number,Order Number\nJ&T,JT1,PG-IMP-1\n");
+
+        assertThat(result.report().getPosted()).isEqualTo(1);
+        assertOrder("PG-IMP-1", OrderStatus.POSTED, "JT1");
+    }
+
+    @Test
+    void repeatedOrderInOneChunkIsPostedOnceThenRetracked() throws IOException {
+        result = importCsv("""
+                order_number,tracking_number
+                PG-IMP-1,JT-FIRST
+                PG-IMP-1,JT-SECOND
+                """);
+
+        assertThat(result.report().getPosted()).isEqualTo(1);
+        assertThat(result.report().getUpdated()).isEqualTo(2);
+        assertOrder("PG-IMP-1", OrderStatus.POSTED, "JT-SECOND");
+        assertThat(history("PG-IMP-1")).hasSize(1);
+    }
+
+    @Test
+    void reportsOrdersThatChangedBetweenValidationAndTheWrite() throws IOException {
+        doAnswer(invocation -> {
+            jdbcTemplate.update("UPDATE orders SET status = 'CANCELLED' WHERE order_number IN ('PG-IMP-1', 'PG-IMP-3')");
+            return invocation.callRealMethod();
+        }).when(orderTrackingRepository).markPosted(any(), any(), any());
+
+        result = importCsv("""
+                order_number,tracking_number
+                PG-IMP-1,JT1
+                PG-IMP-3,JT3
+                """);
+
+        TrackingImportReport report = result.report();
+        assertThat(report.getUpdated()).isZero();
+        assertThat(report.getPosted()).isZero();
+        assertThat(report.getFailed()).isEqualTo(2);
+        assertThat(Files.readAllLines(result.errorReport())).containsExactlyInAnyOrder(
+                "line,order_number,tracking_number,error",
+                "2,PG-IMP-1,JT1,Order status changed during import",
+                "3,PG-IMP-3,JT3,Order was cancelled or removed during import");
+        assertOrder("PG-IMP-1", OrderStatus.CANCELLED, null);
+        assertOrder("PG-IMP-3", OrderStatus.CANCELLED, null);
+    }
+
+    @Test
+    void rejectsFilesWithoutTheRequiredColumns() {
+        assertThatThrownBy(() -> importCsv("order_number,courier\nPG-IMP-1,J&T\n"))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> importCsv(""))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    private TrackingImportService.TrackingImport importCsv(String csv) throws IOException {
+        return trackingImportService.importCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), PACKER);
+    }
+
+    private void assertOrder(String orderNumber, OrderStatus status, String trackingNumber) {
+        Order order = orderRepository.findByOrderNumber(orderNumber).orElseThrow();
+        assertThat(order.getStatus()).as(orderNumber).isEqualTo(status);
+        assertThat(order.getTrackingNumber()).as(orderNumber).isEqualTo(trackingNumber);
+    }
+
+    private List<OrderStatusHistory> history(String orderNumber) {
+        return statusHistoryRepository.findByOrderIdOrderByCreatedAtDesc(
+                orderRepository.findByOrderNumber(orderNumber).orElseThrow().getId());
+    }
+
+    private void order(String orderNumber, OrderStatus status) {
+        orderRepository.save(Order.builder()
+                .orderNumber(orderNumber)
+                .customerName("Customer")
+                .customerEmail("customer@example.com")
+                .total(BigDecimal.TEN)
+                .status(status)
+                .build());
+    }
+}
@@ -0,0 +1,149 @@
+package com.polaroid.service;
+
+import com.polaroid.exception.ResourceNotFoundException;
+import com.polaroid.model.WebhookInboxEntry;
+import com.polaroid.model.enums.PaymentStatus;
+import com.polaroid.model.enums.WebhookInboxState;
+import com.polaroid.repository.WebhookInboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest(properties = {
+        "webhook.inbox.batch-size=2",
+        "webhook.inbox.retry-backoff=5s",
+        "webhook.inbox.max-attempts=10"
+})
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({WebhookInboxStore.class, WebhookInboxWorker.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class WebhookInboxTest {
+
+    @Autowired
+    private WebhookInboxStore inboxStore;
+
+    @Autowired
+    private WebhookInboxWorker inboxWorker;
+
+    @Autowired
+    private WebhookInboxRepository webhookInboxRepository;
+
+    @MockitoBean
+    private OrderService orderService;
+
+    @BeforeEach
+    void clear() {
+        webhookInboxRepository.deleteAll();
+    }
+
+    @Test
+    void duplicateCallbacksAreRecordedOnce() {
+        assertThat(inboxStore.record("toyyibpay", "PG-HOOK-1", PaymentStatus.PAID, "bill1", "25.00")).isTrue();
+        assertThat(inboxStore.record("toyyibpay", "PG-HOOK-1", PaymentStatus.PAID, "bill1", "25.00")).isFalse();
+
+        assertThat(webhookInboxRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void burstForOneOrderIsAppliedAsOneUpdate() {
+        inboxStore.record("toyyibpay", "PG-HOOK-2", PaymentStatus.PENDING, "bill2", "25.00");
+        inboxStore.record("toyyibpay", "PG-HOOK-2", PaymentStatus.PAID, "bill2", "25.00");
+        inboxStore.record("toyyibpay", "PG-HOOK-2", PaymentStatus.FAILED, "bill2", "25.00");
+
+        inboxWorker.drain();
+
+        verify(orderService, times(1)).updatePaymentStatus("PG-HOOK-2", PaymentStatus.PAID);
+        assertThat(webhookInboxRepository.findAll())
+                .extracting(WebhookInboxEntry::getState)
+                .containsOnly(WebhookInboxState.PROCESSED);
+    }
+
+    @Test
+    void callbacksForUnknownOrdersAreRejected() {
+        doThrow(new ResourceNotFoundException("Order not found")).when(orderService)
+                .updatePaymentStatus(any(), any());
+        inboxStore.record("toyyibpay", "PG-HOOK-GONE", PaymentStatus.PAID, "bill3", "25.00");
+
+        inboxWorker.drain();
+
+        assertThat(webhookInboxRepository.findAll()).singleElement().satisfies(entry -> {
+            assertThat(entry.getState()).isEqualTo(WebhookInboxState.FAILED);
+            assertThat(entry.getAttempts()).isEqualTo(1);
+        });
+    }
+
+    @Test
+    void failedCallbacksBackOffInsteadOfBeingClaimedAgainInTheSameDrain() {
+        doThrow(new IllegalStateException("database hiccup")).when(orderService)
+                .updatePaymentStatus(anyString(), any());
+        // A full batch, so the drain loop asks for another one straight away.
+        inboxStore.record("toyyibpay", "PG-HOOK-4", PaymentStatus.PAID, "bill4", "25.00");
+        inboxStore.record("toyyibpay", "PG-HOOK-5", PaymentStatus.PAID, "bill5", "25.00");
+
+        inboxWorker.drain();
+        inboxWorker.drain();
+
+        verify(orderService, times(2)).updatePaymentStatus(anyString(), any());
+        assertThat(webhookInboxRepository.findAll()).hasSize(2).allSatisfy(entry -> {
+            assertThat(entry.getState()).isEqualTo(WebhookInboxState.PENDING);
+            assertThat(entry.getAttempts()).isEqualTo(1);
+            assertThat(entry.getLastError()).isEqualTo("database hiccup");
+            assertThat(entry.getNextAttemptAt()).isCloseTo(LocalDateTime.now().plusSeconds(5), within(2, ChronoUnit.SECONDS));
+        });
+    }
+
+    @Test
+    void backoffDoublesWithEachAttempt() {
+        inboxStore.record("toyyibpay", "PG-HOOK-6", PaymentStatus.PAID, "bill6", "25.00");
+        WebhookInboxEntry entry = webhookInboxRepository.findAll().get(0);
+        entry.setAttempts(3);
+
+        inboxStore.markFailed(List.of(entry), "still failing");
+
+        assertThat(webhookInboxRepository.findById(entry.getId()).orElseThrow().getNextAttemptAt())
+                .isCloseTo(LocalDateTime.now().plusSeconds(20), within(2, ChronoUnit.SECONDS));
+    }
+
+    @Test
+    void callbacksAreClaimedOnceTheirBackoffHasPassed() {
+        inboxStore.record("toyyibpay", "PG-HOOK-7", PaymentStatus.PAID, "bill7", "25.00");
+        WebhookInboxEntry entry = webhookInboxRepository.findAll().get(0);
+        entry.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        webhookInboxRepository.save(entry);
+
+        assertThat(inboxStore.claimBatch(10, LocalDateTime.now())).hasSize(1);
+        assertThat(inboxStore.claimBatch(10, LocalDateTime.now())).isEmpty();
+    }
+
+    @Test
+    void exhaustedCallbacksAreMarkedFailed() {
+        inboxStore.record("toyyibpay", "PG-HOOK-8", PaymentStatus.PAID, "bill8", "25.00");
+        WebhookInboxEntry entry = webhookInboxRepository.findAll().get(0);
+        entry.setAttempts(10);
+
+        inboxStore.markFailed(List.of(entry), "gave up");
+
+        assertThat(webhookInboxRepository.findById(entry.getId()).orElseThrow().getState())
+                .isEqualTo(WebhookInboxState.FAILED);
+    }
+}